@@ -0,0 +1,39 @@
+package com.artograd.api;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.S3Event;
+import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
+import com.artograd.api.services.IFileUploadService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Handles the notifications of objects created in the media bucket, so files uploaded directly
+ * with a presigned URL get their snaps. The Spring context is created once per container, without
+ * the web layer.
+ */
+public class S3EventLambdaHandler implements RequestHandler<S3Event, Void> {
+
+  private static final ConfigurableApplicationContext context =
+      new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE).run();
+
+  private final IFileUploadService fileUploadService =
+      context.getBean(IFileUploadService.class);
+
+  @Override
+  public Void handleRequest(S3Event event, Context lambdaContext) {
+    for (S3EventNotification.S3EventNotificationRecord record : event.getRecords()) {
+      String key = record.getS3().getObject().getUrlDecodedKey();
+      try {
+        fileUploadService.processUploadedObject(key);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to process " + key, e);
+      }
+    }
+    return null;
+  }
+}
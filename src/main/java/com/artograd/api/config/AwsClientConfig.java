@@ -0,0 +1,124 @@
+package com.artograd.api.config;
+
+import java.net.URI;
+import java.time.Duration;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+@Configuration
+public class AwsClientConfig {
+
+  @Value("${aws.cognito.client.max-connections:50}")
+  private int cognitoMaxConnections;
+
+  @Value("${aws.cognito.client.connection-timeout:PT2S}")
+  private Duration cognitoConnectionTimeout;
+
+  @Value("${aws.cognito.client.socket-timeout:PT5S}")
+  private Duration cognitoSocketTimeout;
+
+  @Value("${aws.cognito.client.connection-max-idle-time:PT60S}")
+  private Duration cognitoConnectionMaxIdleTime;
+
+  @Value("${aws.cognito.client.api-call-timeout:PT10S}")
+  private Duration cognitoApiCallTimeout;
+
+  @Value("${aws.cognito.client.max-retries:3}")
+  private int cognitoMaxRetries;
+
+  @Value("${aws.cognito.client.endpoint-override:}")
+  private String cognitoEndpointOverride;
+
+  @Value("${aws.s3.multipart.threshold:8MB}")
+  private DataSize s3MultipartThreshold;
+
+  @Value("${aws.s3.multipart.part-size:8MB}")
+  private DataSize s3MultipartPartSize;
+
+  @Value("${aws.s3.multipart.buffer-size:32MB}")
+  private DataSize s3MultipartBufferSize;
+
+  /**
+   * Creates the Cognito client shared by the whole application. The bean is a singleton created
+   * eagerly at startup, so credentials, region and the connection pool are resolved once and end
+   * up in the SnapStart snapshot.
+   *
+   * @return the configured {@link CognitoIdentityProviderClient}
+   */
+  @Bean(destroyMethod = "close")
+  public CognitoIdentityProviderClient cognitoIdentityProviderClient() {
+    CognitoIdentityProviderClientBuilder builder =
+        CognitoIdentityProviderClient.builder()
+            .httpClientBuilder(
+                ApacheHttpClient.builder()
+                    .maxConnections(cognitoMaxConnections)
+                    .connectionTimeout(cognitoConnectionTimeout)
+                    .socketTimeout(cognitoSocketTimeout)
+                    .connectionMaxIdleTime(cognitoConnectionMaxIdleTime)
+                    .tcpKeepAlive(true))
+            .overrideConfiguration(
+                ClientOverrideConfiguration.builder()
+                    .apiCallTimeout(cognitoApiCallTimeout)
+                    .retryPolicy(RetryPolicy.builder().numRetries(cognitoMaxRetries).build())
+                    .build());
+
+    if (StringUtils.isNotBlank(cognitoEndpointOverride)) {
+      builder.endpointOverride(URI.create(cognitoEndpointOverride));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Creates the S3 client that reads the files uploaded directly to the bucket.
+   *
+   * @return the {@link S3Client}
+   */
+  @Bean(destroyMethod = "close")
+  public S3Client s3Client() {
+    return S3Client.builder().credentialsProvider(DefaultCredentialsProvider.create()).build();
+  }
+
+  /**
+   * Creates the asynchronous S3 client files are uploaded with. Bodies above the multipart
+   * threshold are split into parts that are uploaded concurrently; the buffer size caps how much
+   * of a streamed body is held in memory per upload.
+   *
+   * @return the {@link S3AsyncClient}
+   */
+  @Bean(destroyMethod = "close")
+  public S3AsyncClient s3AsyncClient() {
+    return S3AsyncClient.builder()
+        .credentialsProvider(DefaultCredentialsProvider.create())
+        .multipartEnabled(true)
+        .multipartConfiguration(
+            MultipartConfiguration.builder()
+                .thresholdInBytes(s3MultipartThreshold.toBytes())
+                .minimumPartSizeInBytes(s3MultipartPartSize.toBytes())
+                .apiCallBufferSizeInBytes(s3MultipartBufferSize.toBytes())
+                .build())
+        .build();
+  }
+
+  /**
+   * Creates the presigner of the URLs clients upload files to directly.
+   *
+   * @return the {@link S3Presigner}
+   */
+  @Bean(destroyMethod = "close")
+  public S3Presigner s3Presigner() {
+    return S3Presigner.builder().credentialsProvider(DefaultCredentialsProvider.create()).build();
+  }
+}
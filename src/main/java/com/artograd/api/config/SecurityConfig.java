@@ -24,7 +24,8 @@ public class SecurityConfig {
     http.authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
         .oauth2ResourceServer(
             oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()))
-        .csrf(Customizer.withDefaults())
+        // Stateless lookups posted by anonymous clients carry no CSRF token
+        .csrf(csrf -> csrf.ignoringRequestMatchers("/cities/nearest"))
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
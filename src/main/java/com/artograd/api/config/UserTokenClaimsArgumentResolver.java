@@ -0,0 +1,42 @@
+package com.artograd.api.config;
+
+import com.artograd.api.model.system.UserTokenClaims;
+import com.artograd.api.services.IUserService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Optional;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@code Optional<UserTokenClaims>} controller arguments from the token that Spring
+ * Security has already verified for the current request.
+ */
+public class UserTokenClaimsArgumentResolver implements HandlerMethodArgumentResolver {
+
+  private final IUserService userService;
+
+  public UserTokenClaimsArgumentResolver(IUserService userService) {
+    this.userService = userService;
+  }
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return parameter.getParameterType() == Optional.class
+        && ResolvableType.forMethodParameter(parameter).getGeneric(0).resolve()
+            == UserTokenClaims.class;
+  }
+
+  @Override
+  public Object resolveArgument(
+      MethodParameter parameter,
+      ModelAndViewContainer mavContainer,
+      NativeWebRequest webRequest,
+      WebDataBinderFactory binderFactory) {
+    HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+    return request == null ? Optional.empty() : userService.getUserTokenClaims(request);
+  }
+}
@@ -1,7 +1,12 @@
 package com.artograd.api.config;
 
+import com.artograd.api.services.IUserService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +16,17 @@ public class WebConfig implements WebMvcConfigurer {
   @Value("${artograd.env:cloud}")
   private String env;
 
+  @Lazy @Autowired private IUserService userService;
+
   @Override
   public void addCorsMappings(CorsRegistry registry) {
     if (env != null && env.equals("local")) {
       registry.addMapping("/**").allowedOrigins("*").allowedMethods("*").allowedHeaders("*");
     }
   }
+
+  @Override
+  public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(new UserTokenClaimsArgumentResolver(userService));
+  }
 }
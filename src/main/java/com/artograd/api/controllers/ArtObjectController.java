@@ -2,12 +2,16 @@ package com.artograd.api.controllers;
 
 import com.artograd.api.model.ArtObject;
 import com.artograd.api.model.ArtObjectSearchCriteria;
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IArtObjectService;
 import com.artograd.api.services.ITenderService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -31,7 +35,6 @@ import org.springframework.web.bind.annotation.RestController;
 public class ArtObjectController {
 
   private IArtObjectService artObjectService;
-  private IUserService userService;
   private ITenderService tenderService;
 
   /**
@@ -39,7 +42,7 @@ public class ArtObjectController {
    *
    * @param tenderId The ID of the tender for which the art object is being created
    * @param winnerProposalId The ID of the winner proposal
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the creation operation - HttpStatus.CREATED
    *     if the art object is successfully created - HttpStatus.FORBIDDEN if the user does not have
    *     permission to create the art object
@@ -49,9 +52,7 @@ public class ArtObjectController {
   public ResponseEntity<?> createArtObject(
       @RequestParam String tenderId,
       @RequestParam String winnerProposalId,
-      HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .filter(UserTokenClaims::isOfficer)
         .flatMap(c -> tenderService.getTender(tenderId))
@@ -82,7 +83,7 @@ public class ArtObjectController {
    *
    * @param id The ID of the art object to update
    * @param artObject The updated art object
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the update operation: - ResponseEntity.ok()
    *     with the body set to the updated art object if the update is successful -
    *     ResponseEntity.status(HttpStatus.FORBIDDEN) if the user does not have permission to update
@@ -91,9 +92,8 @@ public class ArtObjectController {
   @PutMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> updateArtObject(
-      @PathVariable String id, @RequestBody ArtObject artObject, HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @PathVariable String id, @RequestBody ArtObject artObject,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .filter(UserTokenClaims::isOfficer)
         .flatMap(c -> tenderService.getTender(artObject.getTender().getId()))
@@ -108,7 +108,7 @@ public class ArtObjectController {
    *
    * @param id The ID of the art object to patch
    * @param artObject The patched art object
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the update operation: - ResponseEntity.ok()
    *     with the body set to the patched art object if the patch is successful -
    *     ResponseEntity.status(HttpStatus.FORBIDDEN) if the user does not have permission to modify
@@ -117,8 +117,8 @@ public class ArtObjectController {
   @PatchMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> patchArtObject(
-      @PathVariable String id, @RequestBody ArtObject artObject, HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
+      @PathVariable String id, @RequestBody ArtObject artObject,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     String username = claims.get().getUsername();
     
     return claims
@@ -135,7 +135,7 @@ public class ArtObjectController {
    * Deletes an art object with the specified ID.
    *
    * @param id The ID of the art object to delete
-   * @param request The HttpServletRequest object
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the delete operation: -
    *     ResponseEntity.noContent() if the art object is successfully deleted -
    *     ResponseEntity.status(HttpStatus.FORBIDDEN) if the user does not have permission to delete
@@ -143,9 +143,8 @@ public class ArtObjectController {
    */
   @DeleteMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
-  public ResponseEntity<Void> deleteArtObject(@PathVariable String id, HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+  public ResponseEntity<Void> deleteArtObject(
+      @PathVariable String id, @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .filter(UserTokenClaims::isOfficer)
         .flatMap(c -> artObjectService.getArtObject(id))
@@ -177,6 +176,79 @@ public class ArtObjectController {
     return ResponseEntity.ok().body(artObjects);
   }
 
+  /**
+   * Performs a search for art objects page by page for infinite scrolling. Each page continues
+   * after the cursor of the previous one, so deep pages are as fast as the first one.
+   *
+   * @param criteria The criteria used for searching art objects, with the {@code after} cursor of
+   *     the previous page or none for the first page
+   * @return A ResponseEntity object containing the page and the cursor of the next one, or a bad
+   *     request if the cursor is malformed or the sort isn't by creation date
+   */
+  @GetMapping("/search/scroll")
+  public ResponseEntity<CursorPage<ArtObject>> scrollArtObjects(
+      @ModelAttribute ArtObjectSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(artObjectService.scrollArtObjects(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Performs a search for a page of art objects together with the total and the number of art
+   * objects per status, category and location, replacing a separate count request per status tab.
+   *
+   * @param criteria The criteria used for searching art objects
+   * @return A ResponseEntity object containing the page, the total and the facet counts, or a bad
+   *     request if relevance sort is requested
+   */
+  @GetMapping("/search/facets")
+  public ResponseEntity<FacetedPage<ArtObject>> facetArtObjects(
+      @ModelAttribute ArtObjectSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(artObjectService.facetArtObjects(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Finds art objects around a point, nearest first, or inside the bounding box of a map view, so
+   * the map loads only what is visible.
+   *
+   * @param criteria Either the centre and radius or the bounding box, and optional statuses
+   * @return A ResponseEntity object containing the art objects and their distance from the centre,
+   *     or a bad request if neither a valid centre nor box is given
+   */
+  @GetMapping("/near")
+  public ResponseEntity<List<NearbyItem<ArtObject>>> findArtObjectsNear(
+      @ModelAttribute GeoSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(artObjectService.findArtObjectsNear(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Retrieves the art objects of a map view clustered on a grid depending on the zoom level, so
+   * the map shows a marker per cluster instead of downloading every art object.
+   *
+   * @param criteria The bounding box, the zoom level and optional statuses
+   * @return A ResponseEntity object containing the clusters, or a bad request if the box is
+   *     invalid or too large for the zoom level
+   */
+  @GetMapping("/clusters")
+  public ResponseEntity<List<MapCluster>> clusterArtObjects(
+      @ModelAttribute GeoSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(artObjectService.clusterArtObjects(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   /**
    * Counts the number of art objects based on the given statuses and user ID.
    *
@@ -1,6 +1,8 @@
 package com.artograd.api.controllers;
 
 import com.artograd.api.model.City;
+import com.artograd.api.model.GeoPosition;
+import com.artograd.api.model.NearbyItem;
 import com.artograd.api.services.ICitiesService;
 import com.artograd.api.utils.CommonUtils;
 import java.util.List;
@@ -8,7 +10,10 @@ import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -18,10 +23,54 @@ public class CitiesController {
 
   private ICitiesService citiesService;
 
-  @SuppressWarnings("unchecked")
+  private static final int CACHE_SECONDS = 60;
+
+  /**
+   * Retrieves all cities from the in-process reference data cache. Clients revalidating with the
+   * ETag get 304 Not Modified while the cities are unchanged.
+   *
+   * @return A ResponseEntity with the cities, their ETag and a cache control header.
+   */
   @GetMapping
   public ResponseEntity<List<City>> getAllCities() {
-    List<City> cities = citiesService.getAllCities();
-    return (ResponseEntity<List<City>>) CommonUtils.addCacheHeader(cities, 60);
+    return CommonUtils.addCacheHeaders(citiesService.getVersionedCities(), CACHE_SECONDS);
+  }
+
+  /**
+   * Finds the city nearest to a position.
+   *
+   * @param lat The latitude.
+   * @param lng The longitude.
+   * @return The nearest city with its distance in metres, HttpStatus.NOT_FOUND if there are no
+   *     cities or HttpStatus.BAD_REQUEST if the position is out of range.
+   */
+  @GetMapping("/nearest")
+  public ResponseEntity<NearbyItem<City>> getNearestCity(
+      @RequestParam double lat, @RequestParam double lng) {
+    try {
+      return citiesService
+          .getNearestCity(lat, lng)
+          .map(ResponseEntity::ok)
+          .orElseGet(() -> ResponseEntity.notFound().build());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Finds the city nearest to each of the positions.
+   *
+   * @param positions The positions, at most 1000.
+   * @return The nearest city of each position in the same order, or HttpStatus.BAD_REQUEST if
+   *     there are too many positions or one is out of range.
+   */
+  @PostMapping("/nearest")
+  public ResponseEntity<List<NearbyItem<City>>> getNearestCities(
+      @RequestBody List<GeoPosition> positions) {
+    try {
+      return ResponseEntity.ok(citiesService.getNearestCities(positions));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
   }
 }
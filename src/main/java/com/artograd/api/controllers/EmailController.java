@@ -4,9 +4,9 @@ import com.artograd.api.model.Tender;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IEmailService;
 import com.artograd.api.services.ITenderService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,20 +25,18 @@ public class EmailController {
   @Autowired
   private ITenderService tenderService;
 
-  @Autowired
-  private IUserService userService;
-
   /**
    * Send emails to contacts of tender owner.
    * @param tenderId tender id
-   * @param request from clien
+   * @param tokenClaims the claims of the authenticated user, if any
    * @return
    */
   @PostMapping("/tender/published/{tenderId}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<String> sendTenderEmails(
-          @PathVariable String tenderId, HttpServletRequest request) {
-    UserTokenClaims claims = userService.getUserTokenClaims(request).orElse(null);
+          @PathVariable String tenderId,
+          @Parameter(hidden = true) Optional<UserTokenClaims> tokenClaims) {
+    UserTokenClaims claims = tokenClaims.orElse(null);
     if (claims == null) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized");
     }
@@ -4,9 +4,8 @@ import com.artograd.api.model.ExpenseReport;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IArtObjectService;
 import com.artograd.api.services.IExpenseReportService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -27,14 +26,13 @@ public class ExpenseReportController {
 
   private IExpenseReportService expenseReportService;
   private IArtObjectService artObjectService;
-  private IUserService userService;
 
   /**
    * Creates a new expense report.
    * This operation is allowed only for the supplier of the related art object.
    *
    * @param expenseReport The expense report to be created
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the creation operation -HttpStatus.CREATED
    *     if the expense report is successfully created -
    *     HttpStatus.FORBIDDEN if the user is not the supplier
@@ -42,9 +40,8 @@ public class ExpenseReportController {
   @PostMapping
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<ExpenseReport> createExpenseReport(
-      @RequestBody ExpenseReport expenseReport, HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @RequestBody ExpenseReport expenseReport,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .flatMap(c -> artObjectService.getArtObject(expenseReport.getArtObjectId()))
         .filter(artObject -> artObject.getSupplier() != null)
@@ -62,7 +59,7 @@ public class ExpenseReportController {
    * This operation is allowed for both the supplier and owner of the related art object.
    *
    * @param id The ID of the expense report to retrieve
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity object representing the status of the retrieval operation: -
    *     ResponseEntity.ok() with the body set to the retrieved expense report if the object exists
    *     ResponseEntity.notFound() if the object does not exist or user is not authorized
@@ -70,9 +67,7 @@ public class ExpenseReportController {
   @GetMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<ExpenseReport> getExpenseReportById(@PathVariable String id,
-      HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return expenseReportService.getExpenseReportById(id)
         .flatMap(expenseReport -> artObjectService.getArtObject(expenseReport.getArtObjectId())
             .filter(artObject -> artObject.getSupplier().getId().equals(claims.get().getUsername())
@@ -87,7 +82,7 @@ public class ExpenseReportController {
    * This operation is allowed only for the supplier of the related art object.
    *
    * @param id The ID of the expense report to delete
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the delete operation: -
    *     ResponseEntity.noContent() if the expense report is successfully deleted -
    *     ResponseEntity.status(HttpStatus.FORBIDDEN) if the user is not the supplier
@@ -95,9 +90,7 @@ public class ExpenseReportController {
   @DeleteMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> deleteExpenseReportById(@PathVariable String id, 
-      HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return expenseReportService.getExpenseReportById(id)
         .flatMap(expenseReport -> artObjectService.getArtObject(expenseReport.getArtObjectId()))
         .filter(artObject -> artObject.getSupplier() != null)
@@ -114,16 +107,15 @@ public class ExpenseReportController {
    * This operation is allowed only for the owner or supplier of the related art object.
    *
    * @param artObjectId The ID of the art object whose expense reports are to be retrieved
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity object containing a list of matching expense reports, 
    *       or status FORBIDDEN if not authorized
    */
   @GetMapping("/artobject/{artObjectId}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<List<ExpenseReport>> getExpenseReportsByArtObjectId(
-      @PathVariable String artObjectId, HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @PathVariable String artObjectId,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .flatMap(c -> artObjectService.getArtObject(artObjectId))
         .filter(artObject -> 
@@ -1,17 +1,20 @@
 package com.artograd.api.controllers;
 
 import com.artograd.api.model.Proposal;
+import com.artograd.api.model.ProposalSearchCriteria;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IProposalService;
 import com.artograd.api.services.ITenderService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Optional;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -26,7 +29,30 @@ public class ProposalController {
 
   private IProposalService proposalService;
   private ITenderService tenderService;
-  private IUserService userService;
+
+  /**
+   * Retrieves one page of the proposals of a tender, sorted by creation date or by likes. The
+   * proposals carry their like count but not the users who liked them.
+   *
+   * @param tenderId the ID of the tender
+   * @param criteria the page, page size, sort field ({@code createdAt} or {@code likes}) and
+   *     sort order
+   * @return a ResponseEntity containing the proposals of the page with a status code of 200 (OK),
+   *     a status code of 400 (Bad Request) if the page, size or sort order is invalid, or a status
+   *     code of 404 (Not Found) if the tender doesn't exist
+   */
+  @GetMapping
+  public ResponseEntity<List<Proposal>> getProposals(
+      @PathVariable String tenderId, @ModelAttribute ProposalSearchCriteria criteria) {
+    if (tenderService.getTender(tenderId).isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    try {
+      return ResponseEntity.ok(proposalService.getProposals(tenderId, criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
 
   /**
    * Retrieves a specific proposal by its tender ID and proposal ID.
@@ -50,15 +76,17 @@ public class ProposalController {
    *
    * @param tenderId the ID of the tender associated with the proposal
    * @param proposal the proposal to be created
-   * @param request the HttpServletRequest object
+   * @param tokenClaims the claims of the authenticated user, if any
    * @return a ResponseEntity representing the result of the operation
    */
   @SuppressWarnings({"unchecked", "rawtypes"})
   @PostMapping
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> createProposal(
-      @PathVariable String tenderId, @RequestBody Proposal proposal, HttpServletRequest request) {
-    UserTokenClaims claims = userService.getUserTokenClaims(request).orElse(null);
+      @PathVariable String tenderId,
+      @RequestBody Proposal proposal,
+      @Parameter(hidden = true) Optional<UserTokenClaims> tokenClaims) {
+    UserTokenClaims claims = tokenClaims.orElse(null);
     if (claims == null
         || tenderService.isTenderOwner(tenderId, claims.getUsername())
         || claims.isOfficer()) {
@@ -80,7 +108,7 @@ public class ProposalController {
    * @param tenderId the ID of the tender associated with the proposal
    * @param proposalId the ID of the proposal to be updated
    * @param proposal the updated proposal object
-   * @param request the HttpServletRequest object
+   * @param claims the claims of the authenticated user, if any
    * @return a ResponseEntity representing the result of the operation. If the operation is allowed
    *     and the proposal is successfully updated, returns a ResponseEntity with a status code of
    *     200 (OK) and the updated proposal. If the operation is not allowed, returns a
@@ -93,8 +121,8 @@ public class ProposalController {
       @PathVariable String tenderId,
       @PathVariable String proposalId,
       @RequestBody Proposal proposal,
-      HttpServletRequest request) {
-    return proposalService.isProposalOperationAllowed(tenderId, proposalId, request)
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return proposalService.isProposalOperationAllowed(tenderId, proposalId, claims)
         ? proposalService
             .updateProposal(tenderId, proposalId, proposal)
             .map(ResponseEntity::ok)
@@ -107,7 +135,7 @@ public class ProposalController {
    *
    * @param tenderId the ID of the tender associated with the proposal
    * @param proposalId the ID of the proposal to be deleted
-   * @param request the HttpServletRequest object
+   * @param claims the claims of the authenticated user, if any
    * @return a ResponseEntity with a status code indicating the result of the operation -
    *     ResponseEntity.noContent() with a status code of 204 (No Content) if the proposal is
    *     deleted successfully, - ResponseEntity.notFound() with a status code of 404 (Not Found) if
@@ -118,8 +146,10 @@ public class ProposalController {
   @DeleteMapping("/{proposalId}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<Void> deleteProposal(
-      @PathVariable String tenderId, @PathVariable String proposalId, HttpServletRequest request) {
-    return proposalService.isProposalOperationAllowed(tenderId, proposalId, request)
+      @PathVariable String tenderId,
+      @PathVariable String proposalId,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return proposalService.isProposalOperationAllowed(tenderId, proposalId, claims)
         ? proposalService.deleteProposal(tenderId, proposalId)
             ? ResponseEntity.noContent().<Void>build()
             : ResponseEntity.notFound().build()
@@ -131,7 +161,7 @@ public class ProposalController {
    *
    * @param tenderId the ID of the tender associated with the proposal
    * @param proposalId the ID of the proposal to be liked
-   * @param request the HttpServletRequest object
+   * @param tokenClaims the claims of the authenticated user, if any
    * @return a ResponseEntity representing the result of the operation. If the user is unauthorized,
    *     returns ResponseEntity with a status code of 401 (Unauthorized). If the proposal is liked
    *     successfully, returns ResponseEntity with a status code of 200 (OK) and the updated
@@ -140,8 +170,10 @@ public class ProposalController {
    */
   @PostMapping("/{proposalId}/like")
   public ResponseEntity<?> likeProposal(
-      @PathVariable String tenderId, @PathVariable String proposalId, HttpServletRequest request) {
-    UserTokenClaims claims = userService.getUserTokenClaims(request).orElse(null);
+      @PathVariable String tenderId,
+      @PathVariable String proposalId,
+      @Parameter(hidden = true) Optional<UserTokenClaims> tokenClaims) {
+    UserTokenClaims claims = tokenClaims.orElse(null);
     if (claims == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
@@ -156,7 +188,7 @@ public class ProposalController {
    *
    * @param tenderId the ID of the tender associated with the proposal
    * @param proposalId the ID of the proposal to be unliked
-   * @param request the HttpServletRequest object
+   * @param tokenClaims the claims of the authenticated user, if any
    * @return a ResponseEntity representing the result of the operation. If the user is unauthorized,
    *     returns ResponseEntity with a status code of 401 (Unauthorized). If the proposal is unliked
    *     successfully, returns ResponseEntity with a status code of 200 (OK) and the updated
@@ -165,8 +197,10 @@ public class ProposalController {
    */
   @PostMapping("/{proposalId}/unlike")
   public ResponseEntity<?> unlikeProposal(
-      @PathVariable String tenderId, @PathVariable String proposalId, HttpServletRequest request) {
-    UserTokenClaims claims = userService.getUserTokenClaims(request).orElse(null);
+      @PathVariable String tenderId,
+      @PathVariable String proposalId,
+      @Parameter(hidden = true) Optional<UserTokenClaims> tokenClaims) {
+    UserTokenClaims claims = tokenClaims.orElse(null);
     if (claims == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
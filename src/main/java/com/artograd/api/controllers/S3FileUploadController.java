@@ -1,46 +1,29 @@
 package com.artograd.api.controllers;
 
 import com.artograd.api.model.FileInfo;
+import com.artograd.api.model.PresignRequest;
+import com.artograd.api.model.PresignedUpload;
 import com.artograd.api.model.system.UserTokenClaims;
-import com.artograd.api.services.IUserService;
+import com.artograd.api.services.IFileUploadService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Optional;
-import java.util.UUID;
-import javax.imageio.ImageIO;
-import net.coobird.thumbnailator.Thumbnails;
-import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 @RestController
 public class S3FileUploadController {
 
-  @Value("${aws.s3.bucket-name}")
-  private String bucketName;
-
-  @Value("${aws.cloudfront.distribution-domain}")
-  private String cloudFrontDomainName;
-
-  @Autowired private IUserService userService;
-
-  private final S3Client s3Client =
-      S3Client.builder().credentialsProvider(DefaultCredentialsProvider.create()).build();
+  @Autowired private IFileUploadService fileUploadService;
 
   /**
    * Uploads a file to the specified folder in the server.
@@ -49,7 +32,7 @@ public class S3FileUploadController {
    * @param subFolder The name of the sub-folder within the tender folder where the file should be
    *                  uploaded.
    * @param file The file to be uploaded.
-   * @param request The HTTP servlet request object.
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the HTTP response. If the file upload is successful, it
    *         returns the file info in the response body. If the file is empty, it returns a bad
    *         request status with the corresponding error message. If the user is not authorized or
@@ -62,19 +45,18 @@ public class S3FileUploadController {
       @PathVariable String tenderFolder,
       @PathVariable String subFolder,
       @RequestParam("file") MultipartFile file,
-      HttpServletRequest request) {
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
 
     if (file.isEmpty()) {
       return ResponseEntity.badRequest().body("File is empty");
     }
 
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
     if (!claims.isPresent() || claims.get().getUsername() == null) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized access");
     }
 
     try {
-      FileInfo fileInfo = processFileUpload(file, tenderFolder, subFolder);
+      FileInfo fileInfo = fileUploadService.uploadFile(file, tenderFolder, subFolder);
       return ResponseEntity.ok(fileInfo);
     } catch (IOException e) {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -82,59 +64,56 @@ public class S3FileUploadController {
     }
   }
 
-  private FileInfo processFileUpload(MultipartFile file, String tenderFolder, String subFolder)
-      throws IOException {
-    String originalFilename = file.getOriginalFilename();
-    String extension = FilenameUtils.getExtension(originalFilename).toLowerCase();
-    String fileName = UUID.randomUUID().toString().replace("-", "");
-    String uniqueFileName =
-        String.format("%s/%s/%s.%s", tenderFolder, subFolder, fileName, extension);
-    String fileType = determineFileType(extension);
-
-    uploadToS3(file.getBytes(), uniqueFileName);
-
-    String fileUrl = cloudFrontDomainName + "/" + uniqueFileName;
-    String snapPath =
-        fileType.equals("image")
-            ? createAndUploadImageSnap(file, tenderFolder, subFolder, fileName, extension)
-            : fileUrl;
-
-    return new FileInfo(
-        fileUrl, snapPath, originalFilename, file.getSize(), 0, fileType, extension);
-  }
-
-  private String createAndUploadImageSnap(
-      MultipartFile file, String tenderFolder, String subFolder, String fileName, String extension)
-      throws IOException {
-    // In this try-with-resources the InputStream and ByteArrayOutputStream will be automatically
-    // closed
-    try (InputStream fileInputStream = file.getInputStream();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-      BufferedImage thumbnail = Thumbnails.of(fileInputStream).size(286, 336).asBufferedImage();
-      ImageIO.write(thumbnail, extension, baos);
-      byte[] snapBytes = baos.toByteArray();
+  /**
+   * Creates a presigned URL the client uploads a file to directly, so large files don't pass
+   * through the API. The snap of an image is created once S3 reports the upload.
+   *
+   * @param request The folders, name, content type and exact size of the file.
+   * @param claims the claims of the authenticated user, if any
+   * @return The upload URL with the headers to send and the file info to store after the upload,
+   *         bad request if the request is invalid or the file too large, or forbidden if the user
+   *         is not authenticated.
+   */
+  @PostMapping("/uploadFile/presign")
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<?> presignUpload(
+      @RequestBody PresignRequest request,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
 
-      String snapFileName =
-          String.format("%s/%s/snaps/%s.%s", tenderFolder, subFolder, fileName, extension);
-      uploadToS3(snapBytes, snapFileName);
+    if (!claims.isPresent() || claims.get().getUsername() == null) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized access");
+    }
 
-      return cloudFrontDomainName + "/" + snapFileName;
+    try {
+      PresignedUpload upload = fileUploadService.presignUpload(request);
+      return ResponseEntity.ok(upload);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(e.getMessage());
     }
   }
 
-  private void uploadToS3(byte[] content, String key) {
-    s3Client.putObject(
-        PutObjectRequest.builder().bucket(bucketName).key(key).build(),
-        RequestBody.fromBytes(content));
-  }
+  /**
+   * Retrieves the info of an image uploaded with a presigned URL, with the renditions that were
+   * actually created and their sizes, which replaces the placeholder info returned by the presign.
+   *
+   * @param key The key of the uploaded object: the path of the presigned file info without the
+   *            CloudFront domain.
+   * @param claims the claims of the authenticated user, if any
+   * @return The file info, not found if the renditions haven't been created yet or the object isn't
+   *         a presigned image upload, or forbidden if the user is not authenticated.
+   */
+  @GetMapping("/uploadFile/presigned")
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<?> getPresignedUpload(
+      @RequestParam String key, @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
 
-  private String determineFileType(String extension) {
-    if ("pdf".equals(extension)) {
-      return "iframe";
-    } else if (extension.matches("svg|png|jpg|heic|avif")) {
-      return "image";
+    if (!claims.isPresent() || claims.get().getUsername() == null) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized access");
     }
-    return "attachment";
+
+    return fileUploadService
+        .getUploadedFile(key)
+        .<ResponseEntity<?>>map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
   }
 }
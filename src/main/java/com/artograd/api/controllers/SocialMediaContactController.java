@@ -3,9 +3,8 @@ package com.artograd.api.controllers;
 import com.artograd.api.model.SocialMediaContact;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.ISocialMediaContactService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +19,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-
 @RestController
 @RequestMapping("/api/contacts")
 public class SocialMediaContactController {
@@ -28,21 +26,19 @@ public class SocialMediaContactController {
   @Autowired
   private ISocialMediaContactService service;
 
-  @Autowired
-  private IUserService userService;
 
   /**
    * Retrieve a social media contact by ID.
    *
    * @param id the ID of the contact to retrieve
-   * @param request the HTTP request object
+   * @param userTokenClaimsOpt the claims of the authenticated user, if any
    * @return the contact if found and the user is authorized, otherwise a forbidden status
    */
   @GetMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<SocialMediaContact> getContactById(
-          @PathVariable String id, HttpServletRequest request) {
-    Optional<UserTokenClaims> userTokenClaimsOpt = userService.getUserTokenClaims(request);
+          @PathVariable String id,
+          @Parameter(hidden = true) Optional<UserTokenClaims> userTokenClaimsOpt) {
     if (userTokenClaimsOpt.isPresent()) {
       String userId = userTokenClaimsOpt.get().getUsername();
       Optional<SocialMediaContact> contactOpt = service.getContactById(id);
@@ -60,14 +56,14 @@ public class SocialMediaContactController {
    * Create a new social media contact.
    *
    * @param contact the contact to create
-   * @param request the HTTP request object
+   * @param userTokenClaimsOpt the claims of the authenticated user, if any
    * @return the created contact if the user is authorized, otherwise a forbidden status
    */
   @PostMapping
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<SocialMediaContact> createContact(
-          @RequestBody SocialMediaContact contact, HttpServletRequest request) {
-    Optional<UserTokenClaims> userTokenClaimsOpt = userService.getUserTokenClaims(request);
+          @RequestBody SocialMediaContact contact,
+          @Parameter(hidden = true) Optional<UserTokenClaims> userTokenClaimsOpt) {
     if (userTokenClaimsOpt.isPresent()) {
       String userId = userTokenClaimsOpt.get().getUsername();
       contact.setUserId(userId);
@@ -83,15 +79,14 @@ public class SocialMediaContactController {
    *
    * @param id the ID of the contact to update
    * @param contact the updated contact details
-   * @param request the HTTP request object
+   * @param userTokenClaimsOpt the claims of the authenticated user, if any
    * @return the updated contact if the user is authorized, otherwise a forbidden status
    */
   @PutMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<SocialMediaContact> updateContact(
           @PathVariable String id, @RequestBody SocialMediaContact contact, 
-          HttpServletRequest request) {
-    Optional<UserTokenClaims> userTokenClaimsOpt = userService.getUserTokenClaims(request);
+          @Parameter(hidden = true) Optional<UserTokenClaims> userTokenClaimsOpt) {
     if (userTokenClaimsOpt.isPresent()) {
       String userId = userTokenClaimsOpt.get().getUsername();
       Optional<SocialMediaContact> existingContactOpt = service.getContactById(id);
@@ -112,13 +107,14 @@ public class SocialMediaContactController {
    * Delete a social media contact by ID.
    *
    * @param id the ID of the contact to delete
-   * @param request the HTTP request object
+   * @param userTokenClaimsOpt the claims of the authenticated user, if any
    * @return no content if the deletion is successful and the user is authorized
    */
   @DeleteMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
-  public ResponseEntity<Void> deleteContact(@PathVariable String id, HttpServletRequest request) {
-    Optional<UserTokenClaims> userTokenClaimsOpt = userService.getUserTokenClaims(request);
+  public ResponseEntity<Void> deleteContact(
+      @PathVariable String id,
+      @Parameter(hidden = true) Optional<UserTokenClaims> userTokenClaimsOpt) {
     if (userTokenClaimsOpt.isPresent()) {
       String userId = userTokenClaimsOpt.get().getUsername();
       Optional<SocialMediaContact> contactOpt = service.getContactById(id);
@@ -137,14 +133,14 @@ public class SocialMediaContactController {
    * Retrieve all social media contacts for a specific user.
    *
    * @param userId the ID of the user
-   * @param request the HTTP request object
+   * @param userTokenClaimsOpt the claims of the authenticated user, if any
    * @return a list of contacts if the user is authorized, otherwise a forbidden status
    */
   @GetMapping("/user/{userId}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<List<SocialMediaContact>> getContactsByUserId(
-          @PathVariable String userId, HttpServletRequest request) {
-    Optional<UserTokenClaims> userTokenClaimsOpt = userService.getUserTokenClaims(request);
+          @PathVariable String userId,
+          @Parameter(hidden = true) Optional<UserTokenClaims> userTokenClaimsOpt) {
     if (userTokenClaimsOpt.isPresent() && userTokenClaimsOpt.get().getUsername().equals(userId)) {
       List<SocialMediaContact> contacts = service.getContactsByUserId(userId);
       return ResponseEntity.ok(contacts);
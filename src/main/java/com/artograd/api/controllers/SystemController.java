@@ -0,0 +1,71 @@
+package com.artograd.api.controllers;
+
+import com.artograd.api.model.system.CollectionIndexReport;
+import com.artograd.api.model.system.UserTokenClaims;
+import com.artograd.api.services.system.CityIndex;
+import com.artograd.api.services.system.IndexBootstrapService;
+import com.artograd.api.services.system.ReferenceDataCache;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/system")
+@AllArgsConstructor
+public class SystemController {
+
+  private IndexBootstrapService indexBootstrapService;
+
+  private ReferenceDataCache referenceDataCache;
+
+  private CityIndex cityIndex;
+
+  /**
+   * Reports the usage of every index and the number of collection scans per collection, to spot
+   * queries that aren't served by an index.
+   *
+   * @param claims the claims of the authenticated user, if any
+   * @return a ResponseEntity with the report of every indexed collection, or status
+   *     HttpStatus.FORBIDDEN if the user is not an official
+   */
+  @GetMapping("/index-usage")
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<List<CollectionIndexReport>> getIndexUsage(
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return claims
+        .filter(UserTokenClaims::isOfficer)
+        .map(c -> ResponseEntity.ok(indexBootstrapService.getIndexUsage()))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+  }
+
+  /**
+   * Reloads the cached reference data, such as cities and the team, after it was changed in the
+   * database, instead of waiting for the refresh interval.
+   *
+   * @param claims the claims of the authenticated user, if any
+   * @return a ResponseEntity with status HttpStatus.NO_CONTENT, or HttpStatus.FORBIDDEN if the
+   *     user is not an official
+   */
+  @PostMapping("/reference-data/refresh")
+  @SecurityRequirement(name = "bearerAuth")
+  public ResponseEntity<Void> refreshReferenceData(
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return claims
+        .filter(UserTokenClaims::isOfficer)
+        .map(
+            c -> {
+              referenceDataCache.refresh();
+              cityIndex.refresh();
+              return ResponseEntity.noContent().<Void>build();
+            })
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+  }
+}
@@ -2,8 +2,10 @@ package com.artograd.api.controllers;
 
 import com.artograd.api.model.TeamMate;
 import com.artograd.api.services.ITeamMateService;
+import com.artograd.api.utils.CommonUtils;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,8 +21,17 @@ public class TeamMateController {
     this.teamMateService = teamMateService;
   }
 
+  private static final int CACHE_SECONDS = 60;
+
+  /**
+   * Retrieves the active team mates from the in-process reference data cache. Clients
+   * revalidating with the ETag get 304 Not Modified while the team is unchanged.
+   *
+   * @return A ResponseEntity with the team mates, their ETag and a cache control header.
+   */
   @GetMapping
-  public List<TeamMate> getActiveTeamMates() {
-    return teamMateService.getActiveTeamMates();
+  public ResponseEntity<List<TeamMate>> getActiveTeamMates() {
+    return CommonUtils.addCacheHeaders(
+        teamMateService.getVersionedActiveTeamMates(), CACHE_SECONDS);
   }
 }
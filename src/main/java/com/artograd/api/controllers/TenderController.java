@@ -1,12 +1,18 @@
 package com.artograd.api.controllers;
 
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
 import com.artograd.api.model.Tender;
 import com.artograd.api.model.TenderSearchCriteria;
+import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.ITenderService;
-import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,13 +33,11 @@ public class TenderController {
 
   @Autowired private ITenderService tenderService;
 
-  @Autowired private IUserService userService;
-
   /**
    * Creates a tender.
    *
    * @param tender The tender object to be created
-   * @param request The HttpServletRequest object
+   * @param claims The claims of the authenticated user, if any
    * @return Returns a ResponseEntity with the created tender if the user is authorized and
    *         the creation is successful. Otherwise, returns a ResponseEntity with status
    *         HttpStatus.FORBIDDEN
@@ -41,12 +45,11 @@ public class TenderController {
   @PostMapping
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<Tender> createTender(
-      @RequestBody Tender tender, HttpServletRequest request) {
-    return userService
-        .getUserTokenClaims(request)
-        .filter(claims -> claims.getUsername() != null)
-        .filter(claims -> claims.getUsername().equals(tender.getOwnerId()) && claims.isOfficer())
-        .map(claims -> tenderService.createTender(tender))
+      @RequestBody Tender tender, @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return claims
+        .filter(c -> c.getUsername() != null)
+        .filter(c -> c.getUsername().equals(tender.getOwnerId()) && c.isOfficer())
+        .map(c -> tenderService.createTender(tender))
         .map(createdTender -> ResponseEntity.status(HttpStatus.CREATED).body(createdTender))
         .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
   }
@@ -55,13 +58,16 @@ public class TenderController {
    * Retrieve a tender by its ID.
    *
    * @param id The unique identifier of the tender.
+   * @param includeProposals Whether to return the proposals of the tender; otherwise only their
+   *     count is returned.
    * @return Returns a ResponseEntity with the tender if found, or a ResponseEntity with status
    *         HttpStatus.NOT_FOUND if the tender is not found.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Tender> getTender(@PathVariable String id) {
+  public ResponseEntity<Tender> getTender(
+      @PathVariable String id, @RequestParam(defaultValue = "false") boolean includeProposals) {
     return tenderService
-        .getTender(id)
+        .getTender(id, includeProposals)
         .map(tender -> ResponseEntity.ok().body(tender))
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
@@ -71,7 +77,7 @@ public class TenderController {
    *
    * @param id The unique identifier of the tender to update.
    * @param tender The updated tender object.
-   * @param request The HttpServletRequest object.
+   * @param claims The claims of the authenticated user, if any.
    * @return Returns a ResponseEntity with the updated tender if the user is authorized and
    *         the update is successful. Otherwise, returns a ResponseEntity with status
    *         HttpStatus.FORBIDDEN if the user is not authorized and HttpStatus.NOT_FOUND if
@@ -80,8 +86,10 @@ public class TenderController {
   @PutMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<Tender> updateTender(
-      @PathVariable String id, @RequestBody Tender tender, HttpServletRequest request) {
-    return isDenied(id, request)
+      @PathVariable String id,
+      @RequestBody Tender tender,
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    return isDenied(id, claims)
         ? ResponseEntity.status(HttpStatus.FORBIDDEN).build()
         : tenderService
             .updateTender(tender)
@@ -93,15 +101,16 @@ public class TenderController {
    * Deletes a tender by its ID.
    *
    * @param id      The unique identifier of the tender to delete.
-   * @param request The HttpServletRequest object.
+   * @param claims  The claims of the authenticated user, if any.
    * @return Returns a ResponseEntity with no content if the user is authorized and the deletion is
    *         successful. Otherwise, returns a ResponseEntity with status HttpStatus.FORBIDDEN if
    *         the user is not authorized.
    */
   @DeleteMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
-  public ResponseEntity<Void> deleteTender(@PathVariable String id, HttpServletRequest request) {
-    if (isDenied(id, request)) {
+  public ResponseEntity<Void> deleteTender(
+      @PathVariable String id, @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    if (isDenied(id, claims)) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
     tenderService.deleteTender(id);
@@ -121,6 +130,80 @@ public class TenderController {
     return ResponseEntity.ok().body(tenders);
   }
 
+  /**
+   * Retrieves tenders matching the search criteria page by page for infinite scrolling. Each page
+   * continues after the cursor of the previous one, so deep pages are as fast as the first one.
+   *
+   * @param criteria The criteria used to search for tenders, with the {@code after} cursor of the
+   *     previous page or none for the first page.
+   * @return Returns a ResponseEntity with the page and the cursor of the next one, or status
+   *         HttpStatus.BAD_REQUEST if the cursor is malformed or the sort isn't by creation date.
+   */
+  @GetMapping("/scroll")
+  public ResponseEntity<CursorPage<Tender>> scrollTenders(
+      @ModelAttribute TenderSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(tenderService.scrollTenders(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Retrieves a page of tenders matching the search criteria together with the total and the
+   * number of tenders per status, category and location, so the status tabs of a search screen
+   * need no separate count requests.
+   *
+   * @param criteria The criteria used to search for tenders.
+   * @return Returns a ResponseEntity with the page, the total and the facet counts, or status
+   *         HttpStatus.BAD_REQUEST if relevance sort is requested.
+   */
+  @GetMapping("/facets")
+  public ResponseEntity<FacetedPage<Tender>> facetTenders(
+      @ModelAttribute TenderSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(tenderService.facetTenders(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Retrieves the public tenders around a point, nearest first, or inside the bounding box of a
+   * map view, so the map loads only what is visible.
+   *
+   * @param criteria Either the centre and radius or the bounding box, and optional statuses.
+   * @return Returns a ResponseEntity with the tenders and their distance from the centre, or
+   *         status HttpStatus.BAD_REQUEST if neither a valid centre nor box is given.
+   */
+  @GetMapping("/near")
+  public ResponseEntity<List<NearbyItem<Tender>>> findTendersNear(
+      @ModelAttribute GeoSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(tenderService.findTendersNear(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Retrieves the public tenders of a map view clustered on a grid depending on the zoom level,
+   * so the map shows a marker per cluster instead of downloading every tender.
+   *
+   * @param criteria The bounding box, the zoom level and optional statuses.
+   * @return Returns a ResponseEntity with the clusters, or status HttpStatus.BAD_REQUEST if the box
+   *         is invalid or too large for the zoom level.
+   */
+  @GetMapping("/clusters")
+  public ResponseEntity<List<MapCluster>> clusterTenders(
+      @ModelAttribute GeoSearchCriteria criteria) {
+    try {
+      return ResponseEntity.ok().body(tenderService.clusterTenders(criteria));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   /**
    * Retrieves the count of tenders based on the owner ID and statuses.
    *
@@ -135,12 +218,9 @@ public class TenderController {
     return ResponseEntity.ok(count);
   }
 
-  private boolean isDenied(String tenderId, HttpServletRequest request) {
-    return userService
-        .getUserTokenClaims(request)
-        .map(
-            claims ->
-                !claims.isOfficer() || !tenderService.isTenderOwner(tenderId, claims.getUsername()))
+  private boolean isDenied(String tenderId, Optional<UserTokenClaims> claims) {
+    return claims
+        .map(c -> !c.isOfficer() || !tenderService.isTenderOwner(tenderId, c.getUsername()))
         .orElse(true);
   }
 }
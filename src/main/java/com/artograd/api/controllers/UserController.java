@@ -4,9 +4,10 @@ import com.artograd.api.model.UserAttribute;
 import com.artograd.api.model.enums.UserRole;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IUserService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Optional;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,19 +30,19 @@ public class UserController {
    * Retrieves the user attributes by the provided username.
    *
    * @param username the username of the user
-   * @param request the HttpServletRequest object
+   * @param tokenClaims the claims of the authenticated user, if any
    * @return the ResponseEntity object containing the list of filtered user attributes, or a 404 Not
    *     Found response if the user is not found
    */
   @GetMapping("/{username}")
   public ResponseEntity<List<UserAttribute>> getUserAttributesByUsername(
-      @PathVariable String username, HttpServletRequest request) {
+      @PathVariable String username,
+      @Parameter(hidden = true) Optional<UserTokenClaims> tokenClaims) {
     return userService
         .getUserByUsername(username)
         .map(
             user -> {
-              UserTokenClaims claims =
-                  userService.getUserTokenClaims(request).orElseGet(UserTokenClaims::new);
+              UserTokenClaims claims = tokenClaims.orElseGet(UserTokenClaims::new);
               boolean isProfileOwner = username.equals(claims.getUsername());
               UserRole requesterRole = claims.getUserRole();
 
@@ -58,14 +59,14 @@ public class UserController {
    * Deletes a user by their username.
    *
    * @param username the username of the user to delete
-   * @param request the HttpServletRequest object
+   * @param claims the claims of the authenticated user, if any
    * @return a ResponseEntity object indicating the status of the operation
    */
   @DeleteMapping("/{username}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> deleteUserByUsername(
-      @PathVariable String username, HttpServletRequest request) {
-    if (isDenied(username, request)) {
+      @PathVariable String username, @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    if (isDenied(username, claims)) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized access.");
     }
 
@@ -79,7 +80,7 @@ public class UserController {
    *
    * @param username the username of the user
    * @param attributes the new attributes for the user
-   * @param request the HttpServletRequest object
+   * @param claims the claims of the authenticated user, if any
    * @return a ResponseEntity indicating the status of the operation
    */
   @PutMapping("/{username}")
@@ -87,8 +88,8 @@ public class UserController {
   public ResponseEntity<?> updateUserAttributesByUsername(
       @PathVariable String username,
       @RequestBody List<UserAttribute> attributes,
-      HttpServletRequest request) {
-    if (isDenied(username, request)) {
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
+    if (isDenied(username, claims)) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized access.");
     }
 
@@ -101,13 +102,12 @@ public class UserController {
    * Check that operation is executed by profile owner.
    *
    * @param username the username to check against the token
-   * @param request the HTTP request containing the authentication token
+   * @param claims the claims of the authenticated user, if any
    * @return true if access is denied, false otherwise
    */
-  private boolean isDenied(String username, HttpServletRequest request) {
-    return userService
-        .getUserTokenClaims(request)
-        .map(claims -> !username.equalsIgnoreCase(claims.getUsername()))
+  private boolean isDenied(String username, Optional<UserTokenClaims> claims) {
+    return claims
+        .map(c -> !username.equalsIgnoreCase(c.getUsername()))
         .orElse(true); // Deny access if token is not present or username does not match
   }
 }
@@ -3,10 +3,9 @@ package com.artograd.api.controllers;
 import com.artograd.api.model.WorkUpdate;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IArtObjectService;
-import com.artograd.api.services.IUserService;
 import com.artograd.api.services.IWorkUpdateService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -27,14 +26,13 @@ public class WorkUpdateController {
 
   private IWorkUpdateService workUpdateService;
   private IArtObjectService artObjectService;
-  private IUserService userService;
 
   /**
    * Creates a new work update. 
    * This operation is allowed only for the supplier of the related art object.
    *
    * @param workUpdate The work update to be created
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the creation operation - HttpStatus.CREATED
    *     if the work update is successfully created -
    *     HttpStatus.FORBIDDEN if the user is not the supplier
@@ -42,9 +40,7 @@ public class WorkUpdateController {
   @PostMapping
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> createWorkUpdate(@RequestBody WorkUpdate workUpdate, 
-      HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return claims
         .flatMap(c -> artObjectService.getArtObject(workUpdate.getArtObjectId()))
         .filter(artObject -> artObject.getSupplier() != null)
@@ -77,7 +73,7 @@ public class WorkUpdateController {
    * only for the supplier of the related art object.
    *
    * @param id The ID of the work update to delete
-   * @param request The HTTP request
+   * @param claims the claims of the authenticated user, if any
    * @return A ResponseEntity representing the status of the delete operation: -
    *     ResponseEntity.noContent() if the work update is successfully deleted -
    *     ResponseEntity.status(HttpStatus.FORBIDDEN) if the user is not the supplier
@@ -85,9 +81,7 @@ public class WorkUpdateController {
   @DeleteMapping("/{id}")
   @SecurityRequirement(name = "bearerAuth")
   public ResponseEntity<?> deleteWorkUpdateById(@PathVariable String id, 
-      HttpServletRequest request) {
-    Optional<UserTokenClaims> claims = userService.getUserTokenClaims(request);
-
+      @Parameter(hidden = true) Optional<UserTokenClaims> claims) {
     return workUpdateService.getWorkUpdateById(id)
         .flatMap(workUpdate -> artObjectService.getArtObject(workUpdate.getArtObjectId()))
         .filter(artObject -> artObject.getSupplier() != null)
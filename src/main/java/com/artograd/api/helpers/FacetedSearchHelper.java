@@ -0,0 +1,198 @@
+package com.artograd.api.helpers;
+
+import com.artograd.api.model.FacetCount;
+import com.artograd.api.model.FacetedPage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns a page of search results together with the total and the counts per value of the
+ * faceted fields in a single {@code $facet} aggregation, so a search screen with filter tabs costs
+ * one round trip instead of one count query per tab.
+ *
+ * <p>Filters shared by all facets are matched once before {@code $facet}, using the indexes of the
+ * collection. The filter on a faceted field is left out of the counts of that field, so the counts
+ * of e.g. the status tabs don't collapse to the currently selected status.
+ */
+@Component
+public class FacetedSearchHelper {
+
+  private static final int MAX_PAGE_SIZE = 100;
+  private static final int MAX_FACET_VALUES = 50;
+  private static final String ITEMS = "items";
+  private static final String TOTAL = "total";
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  /**
+   * Finds the page of documents and the facet counts.
+   *
+   * @param type The entity type to return.
+   * @param text The full-text search or {@code null}.
+   * @param filters The filters shared by the page and all facets.
+   * @param facetFilters The faceted fields with the filter on each of them, or {@code null} for a
+   *     field that isn't filtered. Array fields are counted per element.
+   * @param sort The sort of the page.
+   * @param page The zero-based page number.
+   * @param size The page size.
+   * @param projection Restricts the returned fields, or {@code null} for full documents.
+   * @return The page, the number of documents matching all filters and the facet counts.
+   */
+  public <T> FacetedPage<T> find(
+      Class<T> type,
+      TextCriteria text,
+      List<Criteria> filters,
+      Map<String, Criteria> facetFilters,
+      Sort sort,
+      int page,
+      int size,
+      Consumer<Query> projection) {
+    List<AggregationOperation> pipeline = new ArrayList<>();
+    if (text != null) {
+      // $text is only allowed in the first stage
+      pipeline.add(Aggregation.match(text));
+    }
+    if (!filters.isEmpty()) {
+      pipeline.add(Aggregation.match(and(filters)));
+    }
+
+    List<Criteria> allFacetFilters =
+        facetFilters.values().stream().filter(Objects::nonNull).toList();
+    int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+    List<AggregationOperation> itemStages = new ArrayList<>();
+    matchAll(allFacetFilters).ifPresent(itemStages::add);
+    itemStages.add(Aggregation.sort(sort));
+    itemStages.add(Aggregation.skip((long) Math.max(page, 0) * limit));
+    itemStages.add(Aggregation.limit(limit));
+    projectStage(type, projection).ifPresent(itemStages::add);
+
+    List<AggregationOperation> totalStages = new ArrayList<>();
+    matchAll(allFacetFilters).ifPresent(totalStages::add);
+    totalStages.add(Aggregation.count().as(TOTAL));
+
+    FacetOperation facet =
+        Aggregation.facet(itemStages.toArray(new AggregationOperation[0]))
+            .as(ITEMS)
+            .and(totalStages.toArray(new AggregationOperation[0]))
+            .as(TOTAL);
+    for (String field : facetFilters.keySet()) {
+      List<Criteria> otherFilters =
+          facetFilters.entrySet().stream()
+              .filter(entry -> !entry.getKey().equals(field) && entry.getValue() != null)
+              .map(Map.Entry::getValue)
+              .toList();
+      List<AggregationOperation> countStages = new ArrayList<>();
+      matchAll(otherFilters).ifPresent(countStages::add);
+      countStages.add(Aggregation.unwind(field));
+      countStages.add(Aggregation.sortByCount(field));
+      countStages.add(Aggregation.limit(MAX_FACET_VALUES));
+      facet = facet.and(countStages.toArray(new AggregationOperation[0])).as(field);
+    }
+    pipeline.add(facet);
+
+    Document result =
+        mongoTemplate
+            .aggregate(Aggregation.newAggregation(type, pipeline), Document.class)
+            .getUniqueMappedResult();
+    return toPage(type, result, facetFilters.keySet());
+  }
+
+  private <T> FacetedPage<T> toPage(Class<T> type, Document result, Iterable<String> fields) {
+    List<T> items =
+        result.getList(ITEMS, Document.class).stream()
+            .map(document -> mongoTemplate.getConverter().read(type, document))
+            .toList();
+    long total =
+        result.getList(TOTAL, Document.class).stream()
+            .findFirst()
+            .map(document -> ((Number) document.get(TOTAL)).longValue())
+            .orElse(0L);
+
+    Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+    for (String field : fields) {
+      facets.put(
+          field,
+          result.getList(field, Document.class).stream()
+              .filter(bucket -> bucket.get("_id") != null)
+              .map(
+                  bucket ->
+                      new FacetCount(
+                          bucket.get("_id").toString(),
+                          ((Number) bucket.get("count")).longValue()))
+              .toList());
+    }
+    return new FacetedPage<>(new ArrayList<>(items), total, facets);
+  }
+
+  /**
+   * Turns the fields of a find query into a {@code $project} stage. The {@code $slice} projection
+   * of find takes a count where the aggregation operator takes the array and the count, so it is
+   * rewritten.
+   *
+   * @param type The entity type the field names are mapped with.
+   * @param projection Restricts the returned fields, or {@code null} for full documents.
+   * @param computedFields Fields added by earlier stages that have to be kept as well.
+   * @return The stage or empty if the projection doesn't restrict the fields.
+   */
+  static Optional<AggregationOperation> projectStage(
+      Class<?> type, Consumer<Query> projection, String... computedFields) {
+    if (projection == null) {
+      return Optional.empty();
+    }
+    Query query = new Query();
+    projection.accept(query);
+    Document fields = query.getFieldsObject();
+    if (fields.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        context -> {
+          Document project = toProjection(context.getMappedObject(fields, type));
+          for (String field : computedFields) {
+            project.put(field, 1);
+          }
+          return new Document("$project", project);
+        });
+  }
+
+  private static Document toProjection(Document fields) {
+    Document project = new Document();
+    fields.forEach(
+        (field, value) -> {
+          if (value instanceof Document projection && projection.containsKey("$slice")) {
+            project.put(
+                field, new Document("$slice", List.of("$" + field, projection.get("$slice"))));
+          } else {
+            project.put(field, value);
+          }
+        });
+    return project;
+  }
+
+  private static Optional<AggregationOperation> matchAll(List<Criteria> criteria) {
+    return criteria.isEmpty()
+        ? Optional.empty()
+        : Optional.of(Aggregation.match(and(criteria)));
+  }
+
+  private static Criteria and(List<Criteria> criteria) {
+    return new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+  }
+}
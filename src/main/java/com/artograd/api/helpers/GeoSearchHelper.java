@@ -0,0 +1,154 @@
+package com.artograd.api.helpers;
+
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.NearbyItem;
+import com.artograd.api.utils.LocationUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds documents by the GeoJSON point derived from their location, either around a point sorted
+ * by distance or inside the bounding box of a map view, using the 2dsphere index of the point.
+ */
+@Component
+public class GeoSearchHelper {
+
+  /** The field holding the GeoJSON point of the location. */
+  public static final String GEO_POINT = "geoPoint";
+
+  private static final String DISTANCE = "distance";
+  private static final int MAX_RESULTS = 500;
+  private static final double MAX_RADIUS_METRES = 50_000;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  /**
+   * Finds the documents around the centre of the criteria, nearest first, or inside its bounding
+   * box, newest first, if no centre is given.
+   *
+   * @param type The entity type to return.
+   * @param filters The filters besides the location.
+   * @param criteria The centre and radius or the bounding box and the number of results.
+   * @param projection Restricts the returned fields, or {@code null} for full documents.
+   * @return The found documents with their distance from the centre.
+   * @throws IllegalArgumentException if neither a valid centre nor a valid bounding box is given.
+   */
+  public <T> List<NearbyItem<T>> find(
+      Class<T> type,
+      List<Criteria> filters,
+      GeoSearchCriteria criteria,
+      Consumer<Query> projection) {
+    int limit = Math.max(1, Math.min(criteria.getSize(), MAX_RESULTS));
+    if (criteria.getLat() != null && criteria.getLng() != null) {
+      return findNear(type, filters, criteria, limit, projection);
+    }
+    return findWithin(type, filters, boundingBox(criteria), limit, projection);
+  }
+
+  /**
+   * Returns the bounding box of the criteria as a GeoJSON polygon.
+   *
+   * @param criteria The criteria with all four edges of the box.
+   * @return The polygon of the box.
+   * @throws IllegalArgumentException if an edge is missing or the edges are out of order or range.
+   */
+  public GeoJsonPolygon boundingBox(GeoSearchCriteria criteria) {
+    Double minLat = criteria.getMinLat();
+    Double minLng = criteria.getMinLng();
+    Double maxLat = criteria.getMaxLat();
+    Double maxLng = criteria.getMaxLng();
+    if (minLat == null || minLng == null || maxLat == null || maxLng == null) {
+      throw new IllegalArgumentException("Either lat and lng or a bounding box is required");
+    }
+    LocationUtils.checkPosition(minLat, minLng);
+    LocationUtils.checkPosition(maxLat, maxLng);
+    if (minLat >= maxLat || minLng >= maxLng) {
+      throw new IllegalArgumentException("The bounding box is empty");
+    }
+    return new GeoJsonPolygon(
+        new Point(minLng, minLat),
+        new Point(maxLng, minLat),
+        new Point(maxLng, maxLat),
+        new Point(minLng, maxLat),
+        new Point(minLng, minLat));
+  }
+
+  private <T> List<NearbyItem<T>> findNear(
+      Class<T> type,
+      List<Criteria> filters,
+      GeoSearchCriteria criteria,
+      int limit,
+      Consumer<Query> projection) {
+    LocationUtils.checkPosition(criteria.getLat(), criteria.getLng());
+    if (criteria.getRadius() <= 0 || criteria.getRadius() > MAX_RADIUS_METRES) {
+      throw new IllegalArgumentException("The radius must be between 0 and 50 km");
+    }
+    Document filter = and(filters).getCriteriaObject();
+
+    // Written out, as GeoNearOperation converts distances by the metric of the NearQuery
+    List<AggregationOperation> pipeline = new ArrayList<>();
+    pipeline.add(
+        context ->
+            new Document(
+                "$geoNear",
+                new Document(
+                        "near",
+                        new Document("type", "Point")
+                            .append("coordinates", List.of(criteria.getLng(), criteria.getLat())))
+                    .append("key", GEO_POINT)
+                    .append("distanceField", DISTANCE)
+                    .append("maxDistance", criteria.getRadius())
+                    .append("spherical", true)
+                    .append("query", context.getMappedObject(filter, type))));
+    pipeline.add(Aggregation.limit(limit));
+    FacetedSearchHelper.projectStage(type, projection, DISTANCE).ifPresent(pipeline::add);
+
+    return mongoTemplate
+        .aggregate(Aggregation.newAggregation(type, pipeline), Document.class)
+        .getMappedResults()
+        .stream()
+        .map(
+            document ->
+                new NearbyItem<>(
+                    mongoTemplate.getConverter().read(type, document),
+                    ((Number) document.get(DISTANCE)).doubleValue()))
+        .toList();
+  }
+
+  private <T> List<NearbyItem<T>> findWithin(
+      Class<T> type,
+      List<Criteria> filters,
+      GeoJsonPolygon box,
+      int limit,
+      Consumer<Query> projection) {
+    List<Criteria> criteria = new ArrayList<>(filters);
+    criteria.add(Criteria.where(GEO_POINT).within(box));
+    Query query = new Query(and(criteria));
+    query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    query.limit(limit);
+    if (projection != null) {
+      projection.accept(query);
+    }
+    return mongoTemplate.find(query, type).stream()
+        .map(item -> new NearbyItem<>(item, (Double) null))
+        .toList();
+  }
+
+  private static Criteria and(List<Criteria> criteria) {
+    return criteria.isEmpty()
+        ? new Criteria()
+        : new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+  }
+}
@@ -0,0 +1,249 @@
+package com.artograd.api.helpers;
+
+import jakarta.annotation.PostConstruct;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Node;
+
+/**
+ * Creates the scaled-down renditions of uploaded images. The image is decoded once, subsampled
+ * while decoding to about the widest rendition, turned upright according to its EXIF orientation
+ * and flattened onto white. Every rendition is scaled from that image and written as a JPEG
+ * without any of the original metadata. Renditions are never wider than the image itself: the
+ * configured widths the image is not wider than share a single rendition at the image's own width.
+ */
+@Component
+public class ImageRenditionHelper {
+
+  public static final String FORMAT = "jpg";
+
+  private static final String JPEG_METADATA = "javax_imageio_jpeg_image_1.0";
+  private static final int APP1_MARKER = 0xE1;
+  private static final int ORIENTATION_TAG = 0x0112;
+
+  @Value("${artograd.images.rendition-widths:320,640,1280}")
+  private int[] widths;
+
+  @Value("${artograd.images.quality:0.8}")
+  private float quality;
+
+  /**
+   * A rendition as written, before it is stored. Its target width is the configured width it was
+   * created for, which is larger than its actual width for images narrower than that.
+   */
+  public record Rendition(int targetWidth, int width, int height, byte[] content) {}
+
+  /** Sorts the configured widths and drops duplicates and non-positive ones. */
+  @PostConstruct
+  public void init() {
+    widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+    if (widths.length == 0) {
+      throw new IllegalStateException("At least one image rendition width is required");
+    }
+  }
+
+  /**
+   * Returns the configured rendition widths, narrowest first.
+   *
+   * @return the widths in pixels
+   */
+  public int[] getWidths() {
+    return widths.clone();
+  }
+
+  /**
+   * Tells whether images with the extension can be decoded; vector and newer formats such as
+   * {@code svg}, {@code heic} or {@code avif} can't.
+   *
+   * @param extension the lower-case file extension
+   * @return {@code true} if renditions can be created
+   */
+  public boolean canRender(String extension) {
+    return ImageIO.getImageReadersBySuffix(extension).hasNext();
+  }
+
+  /**
+   * Creates a rendition for each configured width narrower than the image and one at the width of
+   * the image, targeting the narrowest configured width it isn't wider than.
+   *
+   * @param inputStream the encoded image; not closed
+   * @return the renditions, narrowest first
+   * @throws IOException if the image can't be read or decoded
+   */
+  public List<Rendition> render(InputStream inputStream) throws IOException {
+    BufferedImage image = decode(inputStream);
+    List<Rendition> renditions = new ArrayList<>(widths.length);
+    for (int width : widths) {
+      if (image.getWidth() <= width) {
+        renditions.add(new Rendition(width, image.getWidth(), image.getHeight(), encode(image)));
+        break;
+      }
+      BufferedImage scaled = Thumbnails.of(image).width(width).asBufferedImage();
+      renditions.add(new Rendition(width, scaled.getWidth(), scaled.getHeight(), encode(scaled)));
+    }
+    return renditions;
+  }
+
+  private BufferedImage decode(InputStream inputStream) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(inputStream)) {
+      Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+      if (readers == null || !readers.hasNext()) {
+        throw new IOException("Unsupported image format");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, false);
+        int orientation = readOrientation(reader);
+        boolean swapped = orientation >= 5;
+        int uprightWidth = swapped ? reader.getHeight(0) : reader.getWidth(0);
+
+        // Decode only every n-th pixel while the result is still at least as wide as the widest
+        // rendition, so large photos never have to be held in memory at full size
+        int subsampling = Math.max(1, uprightWidth / widths[widths.length - 1]);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return upright(reader.read(0, param), orientation);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Reads the EXIF orientation of a JPEG from its APP1 segment.
+   *
+   * @return the orientation from 1 (upright) to 8, 1 if unknown
+   */
+  private static int readOrientation(ImageReader reader) throws IOException {
+    IIOMetadata metadata;
+    try {
+      metadata = reader.getImageMetadata(0);
+    } catch (IIOException e) {
+      // Unusual marker layouts the metadata parser rejects can still be decoded
+      return 1;
+    }
+    if (metadata == null
+        || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA)) {
+      return 1;
+    }
+    IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA);
+    Node markers = root.getElementsByTagName("markerSequence").item(0);
+    Node node = markers == null ? null : markers.getFirstChild();
+    for (; node != null; node = node.getNextSibling()) {
+      if (node instanceof IIOMetadataNode unknown
+          && "unknown".equals(unknown.getNodeName())
+          && String.valueOf(APP1_MARKER).equals(unknown.getAttribute("MarkerTag"))
+          && unknown.getUserObject() instanceof byte[] data) {
+        int orientation = exifOrientation(data);
+        if (orientation > 0) {
+          return orientation;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /** Finds the orientation tag in IFD0 of an {@code Exif\0\0}-prefixed TIFF structure. */
+  private static int exifOrientation(byte[] data) {
+    int tiff = 6;
+    if (data.length < tiff + 8
+        || data[0] != 'E'
+        || data[1] != 'x'
+        || data[2] != 'i'
+        || data[3] != 'f') {
+      return 0;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    buffer.order(data[tiff] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    int ifd = tiff + buffer.getInt(tiff + 4);
+    if (ifd < tiff || ifd + 2 > data.length) {
+      return 0;
+    }
+    int entries = Short.toUnsignedInt(buffer.getShort(ifd));
+    for (int i = 0; i < entries; i++) {
+      int entry = ifd + 2 + i * 12;
+      if (entry + 12 > data.length) {
+        return 0;
+      }
+      if (Short.toUnsignedInt(buffer.getShort(entry)) == ORIENTATION_TAG) {
+        int orientation = Short.toUnsignedInt(buffer.getShort(entry + 8));
+        return orientation >= 1 && orientation <= 8 ? orientation : 0;
+      }
+    }
+    return 0;
+  }
+
+  /** Applies the EXIF orientation and flattens transparency onto white, as JPEG has no alpha. */
+  private static BufferedImage upright(BufferedImage image, int orientation) {
+    int w = image.getWidth();
+    int h = image.getHeight();
+    AffineTransform transform =
+        switch (orientation) {
+          case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+          case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+          case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+          case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+          case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+          case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+          case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+          default -> new AffineTransform();
+        };
+    boolean swapped = orientation >= 5;
+    BufferedImage result =
+        new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = result.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, result.getWidth(), result.getHeight());
+      graphics.drawImage(image, transform, null);
+    } finally {
+      graphics.dispose();
+    }
+    return result;
+  }
+
+  private byte[] encode(BufferedImage image) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName(FORMAT).next();
+    try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+      output.flush();
+      return baos.toByteArray();
+    } finally {
+      writer.dispose();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.artograd.api.helpers;
+
+import com.artograd.api.model.CursorPage;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pages through search results by the value of the sort field and {@code _id} of the last item
+ * instead of skipping over the previous pages, so every page costs the same however deep the
+ * client scrolls.
+ *
+ * <p>The cursor is the Extended JSON of {@code {v: <sort value>, id: <_id>}} encoded as URL-safe
+ * Base64, which keeps the BSON types of both values (dates, object IDs) across requests. Documents
+ * without a sort value come first in ascending and last in descending order, as MongoDB sorts
+ * them, and are paged through by {@code _id}.
+ */
+@Component
+public class KeysetPaginationHelper {
+
+  private static final int MAX_PAGE_SIZE = 100;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  /**
+   * Finds the page following the cursor.
+   *
+   * @param type The entity type to return.
+   * @param filters The search filters.
+   * @param sortBy The field to sort by.
+   * @param sortableFields The fields the caller allows to sort by.
+   * @param direction The sort direction.
+   * @param size The page size.
+   * @param after The cursor returned with the previous page or blank for the first page.
+   * @param projection Restricts the returned fields, or {@code null} for full documents.
+   * @return The page and the cursor of the next one.
+   * @throws IllegalArgumentException if the cursor is malformed or the field can't be sorted by.
+   */
+  public <T> CursorPage<T> find(
+      Class<T> type,
+      List<Criteria> filters,
+      String sortBy,
+      Set<String> sortableFields,
+      Sort.Direction direction,
+      int size,
+      String after,
+      Consumer<Query> projection) {
+    if (!sortableFields.contains(sortBy)) {
+      throw new IllegalArgumentException("Can't sort by " + sortBy);
+    }
+    List<Criteria> criteria = new ArrayList<>(filters);
+    if (StringUtils.isNotBlank(after)) {
+      criteria.add(afterCursor(decode(after), sortBy, direction));
+    }
+
+    Query query = new Query();
+    if (!criteria.isEmpty()) {
+      query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+    }
+    query.with(Sort.by(direction, sortBy, "id"));
+    int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    query.limit(limit + 1);
+    if (projection != null) {
+      projection.accept(query);
+      if (!query.getFieldsObject().isEmpty()) {
+        query.fields().include(sortBy);
+      }
+    }
+
+    List<T> items = mongoTemplate.find(query, type);
+    boolean hasMore = items.size() > limit;
+    if (hasMore) {
+      items = items.subList(0, limit);
+    }
+    String nextCursor = hasMore ? encode(items.get(items.size() - 1), sortBy) : null;
+    return new CursorPage<>(items, nextCursor);
+  }
+
+  private Criteria afterCursor(Document cursor, String sortBy, Sort.Direction direction) {
+    Object value = cursor.get("v");
+    Object id = cursor.get("id");
+    Criteria sameValue =
+        direction.isAscending()
+            ? Criteria.where(sortBy).is(value).and("id").gt(id)
+            : Criteria.where(sortBy).is(value).and("id").lt(id);
+    if (value == null) {
+      // Missing and null values sort before all others
+      return direction.isAscending()
+          ? new Criteria().orOperator(sameValue, Criteria.where(sortBy).ne(null))
+          : sameValue;
+    }
+    return direction.isAscending()
+        ? new Criteria().orOperator(Criteria.where(sortBy).gt(value), sameValue)
+        : new Criteria()
+            .orOperator(
+                Criteria.where(sortBy).lt(value), sameValue, Criteria.where(sortBy).is(null));
+  }
+
+  private String encode(Object last, String sortBy) {
+    // The stored form keeps the BSON types of the sort value and _id (dates, object IDs)
+    Document stored = new Document();
+    mongoTemplate.getConverter().write(last, stored);
+    Object value = stored.getEmbedded(List.of(sortBy.split("\\.")), Object.class);
+    Document cursor = new Document("v", value).append("id", stored.get("_id"));
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.toJson().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Document decode(String after) {
+    Document cursor;
+    try {
+      cursor =
+          Document.parse(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+    if (!cursor.containsKey("v") || !cursor.containsKey("id")) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    return cursor;
+  }
+}
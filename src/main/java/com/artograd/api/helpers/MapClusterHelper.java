@@ -0,0 +1,249 @@
+package com.artograd.api.helpers;
+
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.utils.ExpiringLruCache;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clusters the points of a map view on a grid, so the map gets a marker per cluster instead of
+ * every document. At zoom level {@code z} the world is split into square tiles of
+ * {@code 360 / 2^z} degrees and every tile into {@value #CELLS_PER_TILE} by
+ * {@value #CELLS_PER_TILE} cells; the documents of a cell form one cluster at the average position
+ * of its points.
+ *
+ * <p>The clusters of each tile are cached for a short time. The tiles of a view that are not
+ * cached are clustered together with a single aggregation, and panning the map only clusters the
+ * tiles that came into view.
+ */
+@Component
+public class MapClusterHelper {
+
+  private static final int CELLS_PER_TILE = 8;
+  private static final int MAX_ZOOM = 22;
+  private static final int MAX_TILES = 64;
+  private static final int SAMPLE_SIZE = 5;
+
+  @Value("${artograd.map-clusters.cache.max-size:5000}")
+  private int maxSize;
+
+  @Value("${artograd.map-clusters.cache.ttl:PT1M}")
+  private Duration ttl;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Autowired private GeoSearchHelper geoSearchHelper;
+
+  private ExpiringLruCache<String, List<MapCluster>> cache;
+
+  @PostConstruct
+  public void init() {
+    cache = new ExpiringLruCache<>(maxSize);
+  }
+
+  /**
+   * Returns the clusters of the tiles covering the bounding box of the criteria.
+   *
+   * @param type The entity type to cluster.
+   * @param filters The filters besides the location; they must be the same for the same
+   *     {@code cacheKey}.
+   * @param cacheKey Identifies the type and filters in the tile cache.
+   * @param criteria The bounding box and zoom level.
+   * @return The clusters of all tiles covering the box, which may reach a little beyond it.
+   * @throws IllegalArgumentException if the box is invalid or covers too many tiles at the zoom.
+   */
+  public List<MapCluster> find(
+      Class<?> type, List<Criteria> filters, String cacheKey, GeoSearchCriteria criteria) {
+    geoSearchHelper.boundingBox(criteria);
+    int zoom = Math.max(0, Math.min(criteria.getZoom(), MAX_ZOOM));
+    double tileSize = 360.0 / (1L << zoom);
+    int columns = 1 << zoom;
+    int rows = (int) Math.ceil(180 / tileSize);
+    int minX = tileIndex(criteria.getMinLng() + 180, tileSize, columns);
+    int maxX = tileIndex(criteria.getMaxLng() + 180, tileSize, columns);
+    int minY = tileIndex(criteria.getMinLat() + 90, tileSize, rows);
+    int maxY = tileIndex(criteria.getMaxLat() + 90, tileSize, rows);
+    if ((long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_TILES) {
+      throw new IllegalArgumentException("The bounding box is too large for the zoom level");
+    }
+
+    List<MapCluster> clusters = new ArrayList<>();
+    List<Tile> missing = new ArrayList<>();
+    for (int x = minX; x <= maxX; x++) {
+      for (int y = minY; y <= maxY; y++) {
+        Tile tile = new Tile(zoom, x, y);
+        Optional<List<MapCluster>> cached = cache.get(tile.key(cacheKey));
+        if (cached != null && cached.isPresent()) {
+          clusters.addAll(cached.get());
+        } else {
+          missing.add(tile);
+        }
+      }
+    }
+    if (!missing.isEmpty()) {
+      Map<Tile, List<MapCluster>> computed = cluster(type, filters, missing, tileSize);
+      for (Tile tile : missing) {
+        List<MapCluster> tileClusters = computed.getOrDefault(tile, List.of());
+        cache.put(tile.key(cacheKey), tileClusters, ttl);
+        clusters.addAll(tileClusters);
+      }
+    }
+    return clusters;
+  }
+
+  /**
+   * Builds the cache key of a search from the entity and the statuses it is filtered by.
+   *
+   * @param type The entity type.
+   * @param statuses The statuses or {@code null} for all of them.
+   * @return The key identifying the type and filters.
+   */
+  public static String cacheKey(Class<?> type, List<String> statuses) {
+    String filter = statuses == null ? "" : String.join(",", new TreeSet<>(statuses));
+    return type.getSimpleName() + ":" + filter;
+  }
+
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  /** Clusters the documents of the tiles with one aggregation over the box covering them all. */
+  private Map<Tile, List<MapCluster>> cluster(
+      Class<?> type, List<Criteria> filters, List<Tile> tiles, double tileSize) {
+    int minX = tiles.stream().mapToInt(Tile::x).min().orElseThrow();
+    int maxX = tiles.stream().mapToInt(Tile::x).max().orElseThrow();
+    int minY = tiles.stream().mapToInt(Tile::y).min().orElseThrow();
+    int maxY = tiles.stream().mapToInt(Tile::y).max().orElseThrow();
+    double west = minX * tileSize - 180;
+    double east = Math.min((maxX + 1) * tileSize - 180, 180);
+    double south = Math.max(minY * tileSize - 90, -90);
+    double north = Math.min((maxY + 1) * tileSize - 90, 90);
+
+    List<Criteria> criteria = new ArrayList<>(filters);
+    // A GeoJSON polygon has to be smaller than a hemisphere; larger areas take every point
+    if (east - west < 180 && north - south < 90) {
+      // The edges of a GeoJSON polygon are geodesics, which bow towards the pole between their
+      // corners. The edge nearer the equator is moved down so that it only touches its parallel
+      // at the middle and no point of the tiles is left out; the points this adds beyond the
+      // tiles fall into cells of other tiles, which are ignored by the caller
+      double halfWidth = Math.toRadians(east - west) / 2;
+      double paddedSouth = south > 0 ? geodesicEnd(south, halfWidth) : south;
+      double paddedNorth = north < 0 ? geodesicEnd(north, halfWidth) : north;
+      criteria.add(
+          Criteria.where(GeoSearchHelper.GEO_POINT)
+              .within(
+                  new GeoJsonPolygon(
+                      new Point(west, paddedSouth),
+                      new Point(east, paddedSouth),
+                      new Point(east, paddedNorth),
+                      new Point(west, paddedNorth),
+                      new Point(west, paddedSouth))));
+    } else {
+      criteria.add(Criteria.where(GeoSearchHelper.GEO_POINT).exists(true));
+    }
+
+    double cellSize = tileSize / CELLS_PER_TILE;
+    Document lng = arrayElement(0);
+    Document lat = arrayElement(1);
+    AggregationOperation group =
+        context ->
+            new Document(
+                "$group",
+                new Document(
+                        "_id",
+                        new Document("x", cellIndex(lng, 180, cellSize))
+                            .append("y", cellIndex(lat, 90, cellSize)))
+                    .append("count", new Document("$sum", 1))
+                    .append("lng", new Document("$avg", lng))
+                    .append("lat", new Document("$avg", lat))
+                    .append(
+                        "sampleIds",
+                        new Document(
+                            "$firstN",
+                            new Document("input", "$_id").append("n", SAMPLE_SIZE))));
+
+    List<Document> cells =
+        mongoTemplate
+            .aggregate(
+                Aggregation.newAggregation(
+                    type,
+                    Aggregation.match(
+                        new Criteria().andOperator(criteria.toArray(new Criteria[0]))),
+                    group),
+                Document.class)
+            .getMappedResults();
+
+    int zoom = tiles.get(0).zoom();
+    Map<Tile, List<MapCluster>> clusters = new HashMap<>();
+    for (Document cell : cells) {
+      Document id = cell.get("_id", Document.class);
+      Tile tile =
+          new Tile(
+              zoom,
+              Math.floorDiv(((Number) id.get("x")).intValue(), CELLS_PER_TILE),
+              Math.floorDiv(((Number) id.get("y")).intValue(), CELLS_PER_TILE));
+      clusters
+          .computeIfAbsent(tile, key -> new ArrayList<>())
+          .add(
+              new MapCluster(
+                  ((Number) cell.get("lat")).doubleValue(),
+                  ((Number) cell.get("lng")).doubleValue(),
+                  ((Number) cell.get("count")).longValue(),
+                  cell.getList("sampleIds", Object.class).stream()
+                      .map(Object::toString)
+                      .toList()));
+    }
+    return clusters;
+  }
+
+  /**
+   * Returns the latitude at which a geodesic has to start and end to reach the given latitude
+   * half way, given half the longitude it spans in radians.
+   */
+  private static double geodesicEnd(double latitude, double halfWidth) {
+    return Math.toDegrees(Math.atan(Math.tan(Math.toRadians(latitude)) * Math.cos(halfWidth)));
+  }
+
+  private static Document arrayElement(int index) {
+    return new Document(
+        "$arrayElemAt", List.of("$" + GeoSearchHelper.GEO_POINT + ".coordinates", index));
+  }
+
+  private static Document cellIndex(Document coordinate, double offset, double cellSize) {
+    return new Document(
+        "$floor",
+        new Document(
+            "$divide", List.of(new Document("$add", List.of(coordinate, offset)), cellSize)));
+  }
+
+  private static int tileIndex(double offsetCoordinate, double tileSize, int count) {
+    return Math.min((int) Math.floor(offsetCoordinate / tileSize), count - 1);
+  }
+
+  private record Tile(int zoom, int x, int y) {
+    String key(String cacheKey) {
+      return cacheKey + ":" + zoom + "/" + x + "/" + y;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.artograd.api.helpers;
+
+import com.artograd.api.model.Proposal;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies likes to proposals with a single atomic update of the liked proposal, so concurrent
+ * likes can't overwrite each other. The like count is only changed together with the set of
+ * users, which keeps it in step with {@code likedByUsers} when a user likes twice.
+ */
+@Component
+public class ProposalLikeHelper {
+
+  private static final String LIKED_BY_USERS = "likedByUsers";
+  private static final String LIKE_COUNT = "likeCount";
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  /**
+   * Adds the user to the users who liked the proposal.
+   *
+   * @param tenderId The tender ID.
+   * @param proposalId The proposal ID.
+   * @param username The user who likes the proposal.
+   * @return The proposal as stored after the update or empty if it doesn't exist.
+   */
+  public Optional<Proposal> like(String tenderId, String proposalId, String username) {
+    return modify(
+        tenderId,
+        proposalId,
+        Criteria.where(LIKED_BY_USERS).ne(username),
+        new Update().addToSet(LIKED_BY_USERS, username).inc(LIKE_COUNT, 1));
+  }
+
+  /**
+   * Removes the user from the users who liked the proposal.
+   *
+   * @param tenderId The tender ID.
+   * @param proposalId The proposal ID.
+   * @param username The user who no longer likes the proposal.
+   * @return The proposal as stored after the update or empty if it doesn't exist.
+   */
+  public Optional<Proposal> unlike(String tenderId, String proposalId, String username) {
+    return modify(
+        tenderId,
+        proposalId,
+        Criteria.where(LIKED_BY_USERS).is(username),
+        new Update().pull(LIKED_BY_USERS, username).inc(LIKE_COUNT, -1));
+  }
+
+  private Optional<Proposal> modify(
+      String tenderId, String proposalId, Criteria condition, Update update) {
+    Criteria byId = Criteria.where("id").is(proposalId).and("tenderId").is(tenderId);
+
+    Proposal proposal =
+        mongoTemplate.findAndModify(
+            new Query(new Criteria().andOperator(byId, condition)),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Proposal.class);
+    if (proposal != null) {
+      return Optional.of(proposal);
+    }
+
+    // Nothing to change: the user already (un)liked it or the proposal doesn't exist
+    return Optional.ofNullable(mongoTemplate.findOne(new Query(byId), Proposal.class));
+  }
+}
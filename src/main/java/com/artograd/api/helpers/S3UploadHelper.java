@@ -0,0 +1,164 @@
+package com.artograd.api.helpers;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Uploads objects to the media bucket without blocking the caller, so the original of a file and
+ * all its renditions are in flight at the same time. Large bodies are split into a multipart
+ * upload by the client. Streamed bodies are read part by part, so only the client's bounded
+ * buffer is held in memory rather than the whole file. Counts and times every upload.
+ */
+@Component
+public class S3UploadHelper {
+
+  private static final Logger logger = LoggerFactory.getLogger(S3UploadHelper.class);
+
+  @Value("${aws.s3.bucket-name}")
+  private String bucketName;
+
+  @Autowired private S3AsyncClient s3AsyncClient;
+
+  private final LongAdder uploads = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder uploadedBytes = new LongAdder();
+  private final LongAdder uploadNanos = new LongAdder();
+
+  private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Starts uploading the content.
+   *
+   * @param key the object key
+   * @param content the content
+   * @param contentType the content type or {@code null} for the S3 default
+   * @return completes when the object is stored
+   */
+  public CompletableFuture<Void> upload(String key, byte[] content, String contentType) {
+    return track(
+        key, content.length, request(key, contentType), AsyncRequestBody.fromBytes(content));
+  }
+
+  /**
+   * Starts streaming the content to S3. The stream is read on a virtual thread and closed once
+   * the upload completed or failed.
+   *
+   * @param key the object key
+   * @param content the content; owned by the upload from now on
+   * @param contentLength the exact length of the content
+   * @param contentType the content type or {@code null} for the S3 default
+   * @return completes when the object is stored
+   */
+  public CompletableFuture<Void> upload(
+      String key, InputStream content, long contentLength, String contentType) {
+    CompletableFuture<Void> upload;
+    try {
+      upload =
+          track(
+              key,
+              contentLength,
+              request(key, contentType),
+              AsyncRequestBody.fromInputStream(content, contentLength, streamExecutor));
+    } catch (RuntimeException e) {
+      closeQuietly(content);
+      throw e;
+    }
+    return upload.whenComplete((result, error) -> closeQuietly(content));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    streamExecutor.shutdown();
+  }
+
+  /**
+   * Waits until all the uploads are done.
+   *
+   * @param pending the uploads
+   * @throws IOException if an upload failed with a checked exception; runtime exceptions such as
+   *     {@link software.amazon.awssdk.core.exception.SdkException} are rethrown as they are
+   */
+  public void awaitAll(List<CompletableFuture<Void>> pending) throws IOException {
+    try {
+      CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IOException("Failed to upload to S3", e.getCause());
+    }
+  }
+
+  private PutObjectRequest request(String key, String contentType) {
+    return PutObjectRequest.builder().bucket(bucketName).key(key).contentType(contentType).build();
+  }
+
+  private CompletableFuture<Void> track(
+      String key, long contentLength, PutObjectRequest request, AsyncRequestBody body) {
+    long start = System.nanoTime();
+    return s3AsyncClient
+        .putObject(request, body)
+        .whenComplete(
+            (response, error) -> {
+              long elapsed = System.nanoTime() - start;
+              uploads.increment();
+              uploadNanos.add(elapsed);
+              if (error != null) {
+                failures.increment();
+                logger.warn("Failed to upload {} after {} ms", key, elapsed / 1_000_000, error);
+              } else {
+                uploadedBytes.add(contentLength);
+                if (logger.isDebugEnabled()) {
+                  logger.debug(
+                      "Uploaded {} ({} bytes) in {} ms", key, contentLength, elapsed / 1_000_000);
+                }
+              }
+            })
+        .thenApply(response -> null);
+  }
+
+  private static void closeQuietly(InputStream content) {
+    try {
+      content.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close an upload stream", e);
+    }
+  }
+
+  public long getUploads() {
+    return uploads.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  public long getUploadedBytes() {
+    return uploadedBytes.sum();
+  }
+
+  /**
+   * Returns the average time from starting an upload until it completed, in milliseconds.
+   *
+   * @return the average latency or 0 if nothing was uploaded yet
+   */
+  public long getAverageUploadMillis() {
+    long count = uploads.sum();
+    return count == 0 ? 0 : uploadNanos.sum() / count / 1_000_000;
+  }
+}
@@ -1,11 +1,16 @@
 package com.artograd.api.helpers;
 
+import com.artograd.api.model.Proposal;
 import com.artograd.api.model.UserAttribute;
 import com.artograd.api.model.enums.UserAttributeKey;
 import com.artograd.api.repositories.ArtObjectRepository;
 import com.artograd.api.repositories.TenderRepository;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,6 +18,7 @@ public class UserServiceHelper {
   @Autowired private ArtObjectRepository artObjectRepository;
   @Autowired private TenderRepository tenderRepository;
   @Autowired private UserAttributeHelper userAttributeHelper;
+  @Autowired private MongoTemplate mongoTemplate;
 
   /**
    * Updates art objects with user profile data.
@@ -53,42 +59,36 @@ public class UserServiceHelper {
   }
 
   /**
-   * Updates tenders with user profile data.
+   * Updates tenders and proposals with user profile data.
    *
    * @param userName The username.
    * @param attributes The user attributes.
    */
   public void updateUserProfileDataInTendersAndProposals(
       String userName, List<UserAttribute> attributes) {
+    String name = userAttributeHelper.formatUserName(attributes);
+    String picture =
+        userAttributeHelper.getUserAttributeValue(attributes, UserAttributeKey.PICTURE);
+    String organization =
+        userAttributeHelper.getUserAttributeValue(
+            attributes, UserAttributeKey.CUSTOM_ORGANIZATION);
+
     tenderRepository
-        .findByOwnerIdOrProposalOwnerId(userName)
+        .findByOwnerId(userName)
         .forEach(
             tender -> {
-              if (tender.getOwnerId().equals(userName)) {
-                tender.setOwnerName(userAttributeHelper.formatUserName(attributes));
-                tender.setOwnerPicture(
-                    userAttributeHelper.getUserAttributeValue(
-                        attributes, UserAttributeKey.PICTURE));
-                tender.setOrganization(
-                    userAttributeHelper.getUserAttributeValue(
-                        attributes, UserAttributeKey.CUSTOM_ORGANIZATION));
-              }
-              if (tender.getProposals() != null) {
-                tender.getProposals().stream()
-                    .filter(proposal -> proposal.getOwnerId().equals(userName))
-                    .forEach(
-                        proposal -> {
-                          proposal.setOwnerName(userAttributeHelper.formatUserName(attributes));
-                          proposal.setOwnerPicture(
-                              userAttributeHelper.getUserAttributeValue(
-                                  attributes, UserAttributeKey.PICTURE));
-                          proposal.setOwnerOrg(
-                              userAttributeHelper.getUserAttributeValue(
-                                  attributes, UserAttributeKey.CUSTOM_ORGANIZATION));
-                        });
-              }
-
+              tender.setOwnerName(name);
+              tender.setOwnerPicture(picture);
+              tender.setOrganization(organization);
               tenderRepository.save(tender);
             });
+
+    mongoTemplate.updateMulti(
+        Query.query(Criteria.where("ownerId").is(userName)),
+        new Update()
+            .set("ownerName", name)
+            .set("ownerPicture", picture)
+            .set("ownerOrg", organization),
+        Proposal.class);
   }
 }
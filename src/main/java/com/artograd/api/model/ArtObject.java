@@ -1,11 +1,13 @@
 package com.artograd.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.Date;
 import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 
 @Schema
 @Getter
@@ -19,6 +21,18 @@ public class ArtObject {
   @Schema(description = "Art object title")
   private String title;
 
+  @JsonIgnore
+  @Schema(hidden = true)
+  private List<String> titleTokens;
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  private List<String> locationPath;
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  private GeoJsonPoint geoPoint;
+
   @Schema(description = "Art object description")
   private String description;
 
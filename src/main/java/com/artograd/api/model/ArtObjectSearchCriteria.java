@@ -10,8 +10,13 @@ import lombok.Setter;
 @NoArgsConstructor
 public class ArtObjectSearchCriteria {
 
+  /** Type-ahead search: every word must be the start of a word of the title. */
   private String title;
 
+  /** Full-text search over title and description; allows {@code sortBy=relevance}. */
+  private String text;
+
+  /** Location IDs of any level, e.g. a country matches everything in its settlements. */
   private List<String> locationLeafIds;
 
   private List<String> statuses;
@@ -22,7 +27,14 @@ public class ArtObjectSearchCriteria {
 
   private int size = 10;
 
+  /** A field name or {@code relevance} with a full-text search. */
   private String sortBy = "createdAt";
 
   private String sortOrder = "desc";
+
+  /** Set to {@code card} to load only the fields shown on list cards. */
+  private String fields;
+
+  /** Cursor returned with the previous page; used by the scroll search only. */
+  private String after;
 }
@@ -0,0 +1,24 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+  @Schema(description = "The items of the page")
+  private List<T> items;
+
+  @Schema(
+      description =
+          "Opaque cursor to pass as 'after' to get the next page; null on the last page")
+  private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+  @Schema(description = "The value of the faceted field")
+  private String value;
+
+  @Schema(description = "The number of matching documents with this value")
+  private long count;
+}
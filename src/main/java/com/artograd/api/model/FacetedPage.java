@@ -0,0 +1,30 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedPage<T> {
+
+  @Schema(description = "The items of the page")
+  private List<T> items;
+
+  @Schema(description = "The number of documents matching all filters")
+  private long total;
+
+  @Schema(
+      description =
+          "Counts per value of each faceted field, most frequent first. The counts of a field "
+              + "ignore the filter on that field itself, so they tell how many documents each "
+              + "value would match")
+  private Map<String, List<FacetCount>> facets;
+}
@@ -1,6 +1,7 @@
 package com.artograd.api.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,4 +23,10 @@ public class FileInfo {
   private String type;
 
   private String extension;
+
+  @Schema(
+      description =
+          "Scaled-down JPEG renditions of an image, narrowest first, for use in a srcset; empty "
+              + "for other files and for images that can't be decoded")
+  private List<ImageRendition> renditions;
 }
@@ -0,0 +1,43 @@
+package com.artograd.api.model;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class GeoSearchCriteria {
+
+  /** Latitude of the centre of a radius search; results are sorted by distance from it. */
+  private Double lat;
+
+  /** Longitude of the centre of a radius search. */
+  private Double lng;
+
+  /** Radius of a radius search in metres. */
+  private double radius = 1000;
+
+  /** South edge of a bounding box search, used when no centre is given. */
+  private Double minLat;
+
+  /** West edge of a bounding box search. */
+  private Double minLng;
+
+  /** North edge of a bounding box search. */
+  private Double maxLat;
+
+  /** East edge of a bounding box search. */
+  private Double maxLng;
+
+  /** Zoom level of the map; used by the cluster search, which requires a bounding box. */
+  private int zoom = 12;
+
+  private List<String> statuses;
+
+  private int size = 100;
+
+  /** Set to {@code card} to load only the fields shown on list cards. */
+  private String fields;
+}
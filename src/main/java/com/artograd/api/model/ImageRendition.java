@@ -0,0 +1,27 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRendition {
+
+  @Schema(description = "Width of the rendition in pixels")
+  private int width;
+
+  @Schema(
+      description =
+          "Height of the rendition in pixels; 0 in the placeholders returned for a presigned "
+              + "upload")
+  private int height;
+
+  @Schema(description = "URL of the rendition")
+  private String path;
+}
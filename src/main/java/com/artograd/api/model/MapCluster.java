@@ -0,0 +1,28 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapCluster {
+
+  @Schema(description = "Latitude of the centroid of the clustered items")
+  private double lat;
+
+  @Schema(description = "Longitude of the centroid of the clustered items")
+  private double lng;
+
+  @Schema(description = "The number of clustered items")
+  private long count;
+
+  @Schema(description = "IDs of a few of the clustered items, all of them for small clusters")
+  private List<String> sampleIds;
+}
@@ -0,0 +1,21 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyItem<T> {
+
+  @Schema(description = "The found item")
+  private T item;
+
+  @Schema(description = "Distance from the searched point in metres; null for a bounding box")
+  private Double distance;
+}
@@ -0,0 +1,28 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+public class PresignRequest {
+
+  @Schema(description = "The name of the tender folder the file is uploaded to")
+  private String tenderFolder;
+
+  @Schema(description = "The name of the sub-folder within the tender folder")
+  private String subFolder;
+
+  @Schema(description = "The original name of the file, including its extension")
+  private String fileName;
+
+  @Schema(description = "The content type the file will be uploaded with")
+  private String contentType;
+
+  @Schema(description = "The exact size of the file in bytes")
+  private long size;
+}
@@ -0,0 +1,33 @@
+package com.artograd.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Date;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUpload {
+
+  @Schema(description = "The URL to PUT the file to")
+  private String uploadUrl;
+
+  @Schema(description = "The headers the PUT request has to be sent with")
+  private Map<String, String> headers;
+
+  @Schema(description = "When the upload URL expires")
+  private Date expiresAt;
+
+  @Schema(
+      description =
+          "The file info to store once the upload succeeded. The renditions of an image are "
+              + "placeholders at the configured widths; the actual ones can be fetched from "
+              + "GET /uploadFile/presigned once created shortly after the upload")
+  private FileInfo fileInfo;
+}
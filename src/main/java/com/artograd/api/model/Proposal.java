@@ -9,17 +9,22 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 @Schema
 @Getter
 @Setter
 @NoArgsConstructor
+@Document(collection = "proposals")
 public class Proposal {
 
   @Id
   @Schema(description = "The unique auto-generated identifier of the proposal")
   private String id;
 
+  @Schema(description = "The ID of the tender the proposal is submitted to")
+  private String tenderId;
+
   @Schema(description = "The title of the proposal idea")
   private String title;
 
@@ -61,4 +66,7 @@ public class Proposal {
 
   @Schema(description = "The set of usernames who have liked the proposal")
   private Set<String> likedByUsers = new HashSet<>();
+
+  @Schema(description = "The number of users who have liked the proposal")
+  private int likeCount;
 }
@@ -0,0 +1,20 @@
+package com.artograd.api.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProposalSearchCriteria {
+
+  private int page = 0;
+
+  private int size = 20;
+
+  /** Either {@code createdAt} or {@code likes}. */
+  private String sortBy = "createdAt";
+
+  private String sortOrder = "desc";
+}
@@ -1,11 +1,14 @@
 package com.artograd.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.Date;
 import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 
 @Schema
 @Getter
@@ -19,6 +22,18 @@ public class Tender {
   @Schema(description = "The title of the tender")
   private String title;
 
+  @JsonIgnore
+  @Schema(hidden = true)
+  private List<String> titleTokens;
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  private List<String> locationPath;
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  private GeoJsonPoint geoPoint;
+
   @Schema(description = "The description of the tender")
   private String description;
 
@@ -70,8 +85,13 @@ public class Tender {
   @Schema(description = "Tender last modification date")
   private Date modifiedAt;
 
-  @Schema(description = "The proposals for the tender")
+  @Transient
+  @Schema(description = "The proposals for the tender. Only filled when requested explicitly")
   private List<Proposal> proposals;
+
+  @Transient
+  @Schema(description = "The number of proposals submitted to the tender")
+  private long proposalCount;
   
   @Schema(description = "The reason of cancellation of the tender")
   private String cancellationReason;
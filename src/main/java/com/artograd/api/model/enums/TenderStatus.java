@@ -1,5 +1,9 @@
 package com.artograd.api.model.enums;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 public enum TenderStatus {
   DRAFT,
   PUBLISHED,
@@ -9,4 +13,29 @@ public enum TenderStatus {
   CANCELLED,
   CLOSED,
   DELETED;
+
+  /**
+   * Returns the statuses of the tenders listed to everybody: all but drafts, cancelled, closed and
+   * deleted tenders.
+   *
+   * @return the status names
+   */
+  public static List<String> publicStatuses() {
+    return namesExcept(DRAFT, CANCELLED, CLOSED, DELETED);
+  }
+
+  /**
+   * Returns the names of all statuses except the given ones. Queries list the statuses they match
+   * rather than the ones they exclude, because only then can they use partial indexes.
+   *
+   * @param excluded the statuses to leave out
+   * @return the status names
+   */
+  public static List<String> namesExcept(TenderStatus... excluded) {
+    Set<TenderStatus> excludedSet = Set.of(excluded);
+    return Arrays.stream(values())
+        .filter(status -> !excludedSet.contains(status))
+        .map(Enum::name)
+        .toList();
+  }
 }
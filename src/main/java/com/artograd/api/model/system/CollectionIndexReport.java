@@ -0,0 +1,21 @@
+package com.artograd.api.model.system;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionIndexReport {
+
+  private String collection;
+
+  /** Number of queries answered by a collection scan since the server started. */
+  private long collectionScans;
+
+  private List<IndexUsage> indexes;
+}
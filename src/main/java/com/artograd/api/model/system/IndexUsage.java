@@ -0,0 +1,22 @@
+package com.artograd.api.model.system;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexUsage {
+
+  private String name;
+
+  /** Number of operations that used the index since {@link #since}. */
+  private long accesses;
+
+  /** When the server started counting, usually its start or the index creation. */
+  private Date since;
+}
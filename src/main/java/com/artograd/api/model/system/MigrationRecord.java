@@ -0,0 +1,21 @@
+package com.artograd.api.model.system;
+
+import java.util.Date;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "migrations")
+public class MigrationRecord {
+
+  @Id private String id;
+
+  private Date appliedAt;
+
+  private long processed;
+}
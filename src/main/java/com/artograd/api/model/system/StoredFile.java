@@ -0,0 +1,27 @@
+package com.artograd.api.model.system;
+
+import com.artograd.api.model.FileInfo;
+import java.util.Date;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A stored file. Files uploaded through the API are keyed by the SHA-256 of their content, files
+ * uploaded with a presigned URL by their object key once their renditions have been created.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "storedFiles")
+public class StoredFile {
+
+  /** Hex-encoded SHA-256 of the file content, or the object key of a presigned upload. */
+  @Id private String id;
+
+  private FileInfo fileInfo;
+
+  private Date storedAt;
+}
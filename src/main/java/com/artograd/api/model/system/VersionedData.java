@@ -0,0 +1,10 @@
+package com.artograd.api.model.system;
+
+/**
+ * Data together with a hash of its content, used as the entity tag of responses serving it.
+ *
+ * @param data the data
+ * @param eTag the unquoted entity tag, which changes whenever the content does
+ * @param <T> the data type
+ */
+public record VersionedData<T>(T data, String eTag) {}
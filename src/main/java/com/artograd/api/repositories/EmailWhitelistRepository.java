@@ -3,10 +3,16 @@ package com.artograd.api.repositories;
 import com.artograd.api.model.EmailWhitelistEntry;
 import java.util.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 public interface EmailWhitelistRepository extends MongoRepository<EmailWhitelistEntry, String> {
 
+  /** Case-insensitive collation matching the email and domain indexes. */
+  String CASE_INSENSITIVE = "{ 'locale': 'en', 'strength': 2 }";
+
+  @Query(value = "{ 'email': ?0 }", collation = CASE_INSENSITIVE)
   List<EmailWhitelistEntry> findByEmailIgnoreCase(String email);
-  
+
+  @Query(value = "{ 'domain': ?0 }", collation = CASE_INSENSITIVE)
   List<EmailWhitelistEntry> findByDomainIgnoreCase(String domain);
 }
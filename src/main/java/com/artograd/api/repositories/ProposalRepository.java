@@ -0,0 +1,20 @@
+package com.artograd.api.repositories;
+
+import com.artograd.api.model.Proposal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ProposalRepository extends MongoRepository<Proposal, String> {
+
+  Optional<Proposal> findByIdAndTenderId(String id, String tenderId);
+
+  List<Proposal> findByTenderIdOrderByCreatedAtAsc(String tenderId);
+
+  List<Proposal> findByTenderIdInOrderByCreatedAtAsc(Collection<String> tenderIds);
+
+  long deleteByIdAndTenderId(String id, String tenderId);
+
+  void deleteByTenderId(String tenderId);
+}
@@ -2,6 +2,11 @@ package com.artograd.api.services;
 
 import com.artograd.api.model.ArtObject;
 import com.artograd.api.model.ArtObjectSearchCriteria;
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,14 @@ public interface IArtObjectService {
 
   List<ArtObject> searchArtObjects(ArtObjectSearchCriteria artObjectSearchCriteria);
 
+  CursorPage<ArtObject> scrollArtObjects(ArtObjectSearchCriteria artObjectSearchCriteria);
+
+  FacetedPage<ArtObject> facetArtObjects(ArtObjectSearchCriteria artObjectSearchCriteria);
+
+  List<NearbyItem<ArtObject>> findArtObjectsNear(GeoSearchCriteria geoSearchCriteria);
+
+  List<MapCluster> clusterArtObjects(GeoSearchCriteria geoSearchCriteria);
+
   boolean isArtObjectOwner(String objectId, String username);
 
   Optional<ArtObject> patchArtObject(String id, ArtObject artObject);
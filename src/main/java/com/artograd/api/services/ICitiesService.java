@@ -1,8 +1,18 @@
 package com.artograd.api.services;
 
 import com.artograd.api.model.City;
+import com.artograd.api.model.GeoPosition;
+import com.artograd.api.model.NearbyItem;
+import com.artograd.api.model.system.VersionedData;
 import java.util.List;
+import java.util.Optional;
 
 public interface ICitiesService {
   List<City> getAllCities();
+
+  VersionedData<List<City>> getVersionedCities();
+
+  Optional<NearbyItem<City>> getNearestCity(double lat, double lng);
+
+  List<NearbyItem<City>> getNearestCities(List<GeoPosition> positions);
 }
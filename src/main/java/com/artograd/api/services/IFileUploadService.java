@@ -0,0 +1,20 @@
+package com.artograd.api.services;
+
+import com.artograd.api.model.FileInfo;
+import com.artograd.api.model.PresignRequest;
+import com.artograd.api.model.PresignedUpload;
+import java.io.IOException;
+import java.util.Optional;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface IFileUploadService {
+
+  FileInfo uploadFile(MultipartFile file, String tenderFolder, String subFolder)
+      throws IOException;
+
+  PresignedUpload presignUpload(PresignRequest request);
+
+  void processUploadedObject(String key) throws IOException;
+
+  Optional<FileInfo> getUploadedFile(String key);
+}
@@ -1,12 +1,16 @@
 package com.artograd.api.services;
 
 import com.artograd.api.model.Proposal;
-import jakarta.servlet.http.HttpServletRequest;
+import com.artograd.api.model.ProposalSearchCriteria;
+import com.artograd.api.model.system.UserTokenClaims;
+import java.util.List;
 import java.util.Optional;
 
 public interface IProposalService {
   Optional<Proposal> getProposal(String tenderId, String proposalId);
 
+  List<Proposal> getProposals(String tenderId, ProposalSearchCriteria criteria);
+
   Optional<Proposal> createProposal(String tenderId, Proposal proposal, String realUserName);
 
   boolean deleteProposal(String tenderId, String proposalId);
@@ -14,7 +18,7 @@ public interface IProposalService {
   Optional<Proposal> updateProposal(String tenderId, String proposalId, Proposal updatedProposal);
 
   boolean isProposalOperationAllowed(
-      String tenderId, String proposalId, HttpServletRequest request);
+      String tenderId, String proposalId, Optional<UserTokenClaims> claims);
 
   Optional<Proposal> likeProposal(String tenderId, String proposalId, String username);
 
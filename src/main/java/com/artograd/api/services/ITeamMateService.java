@@ -1,8 +1,11 @@
 package com.artograd.api.services;
 
 import com.artograd.api.model.TeamMate;
+import com.artograd.api.model.system.VersionedData;
 import java.util.List;
 
 public interface ITeamMateService {
   List<TeamMate> getActiveTeamMates();
+
+  VersionedData<List<TeamMate>> getVersionedActiveTeamMates();
 }
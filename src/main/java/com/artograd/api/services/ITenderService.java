@@ -1,5 +1,10 @@
 package com.artograd.api.services;
 
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
 import com.artograd.api.model.Tender;
 import com.artograd.api.model.TenderSearchCriteria;
 import java.util.List;
@@ -10,12 +15,22 @@ public interface ITenderService {
 
   Optional<Tender> getTender(String id);
 
+  Optional<Tender> getTender(String id, boolean includeProposals);
+
   Optional<Tender> updateTender(Tender tender);
 
   void deleteTender(String id);
 
   List<Tender> searchTenders(TenderSearchCriteria criteria);
 
+  CursorPage<Tender> scrollTenders(TenderSearchCriteria criteria);
+
+  FacetedPage<Tender> facetTenders(TenderSearchCriteria criteria);
+
+  List<NearbyItem<Tender>> findTendersNear(GeoSearchCriteria criteria);
+
+  List<MapCluster> clusterTenders(GeoSearchCriteria criteria);
+
   long getCountByOwnerIdAndStatusIn(String ownerId, List<String> statuses);
 
   boolean isTenderOwner(String tenderId, String username);
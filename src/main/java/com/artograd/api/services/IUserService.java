@@ -5,7 +5,9 @@ import com.artograd.api.model.UserAttribute;
 import com.artograd.api.model.enums.UserRole;
 import com.artograd.api.model.system.UserTokenClaims;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IUserService {
@@ -15,6 +17,8 @@ public interface IUserService {
 
   Optional<User> getUserByUsername(String username);
 
+  Map<String, User> getUsersByUsernames(Collection<String> usernames);
+
   Optional<UserTokenClaims> getUserTokenClaims(HttpServletRequest request);
 
   List<UserAttribute> filterAttributes(
@@ -1,9 +1,18 @@
 package com.artograd.api.services.impl;
 
+import com.artograd.api.helpers.FacetedSearchHelper;
+import com.artograd.api.helpers.GeoSearchHelper;
+import com.artograd.api.helpers.KeysetPaginationHelper;
+import com.artograd.api.helpers.MapClusterHelper;
 import com.artograd.api.helpers.UserAttributeHelper;
 import com.artograd.api.model.ArtObject;
 import com.artograd.api.model.ArtObjectSearchCriteria;
 import com.artograd.api.model.BudgetInfo;
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
 import com.artograd.api.model.PaymentInfo;
 import com.artograd.api.model.Proposal;
 import com.artograd.api.model.Tender;
@@ -15,10 +24,16 @@ import com.artograd.api.services.IProposalService;
 import com.artograd.api.services.ITenderService;
 import com.artograd.api.services.IUserService;
 import com.artograd.api.services.system.SequenceGeneratorService;
+import com.artograd.api.utils.LocationUtils;
+import com.artograd.api.utils.SearchTextUtils;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -27,12 +42,23 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class ArtObjectService implements IArtObjectService {
 
+  private static final String CARD_FIELDS = "card";
+  private static final String SORT_BY_RELEVANCE = "relevance";
+
+  /**
+   * The only field a search can be scrolled by: every search index ends with {@code (createdAt,
+   * _id)}, so other sort fields would be sorted in memory on every page.
+   */
+  private static final Set<String> SCROLL_SORT_FIELDS = Set.of("createdAt");
+
   @Autowired private ArtObjectRepository artObjectRepository;
 
   @Autowired private ITenderService tenderService;
@@ -47,6 +73,14 @@ public class ArtObjectService implements IArtObjectService {
 
   @Autowired private UserAttributeHelper userAttributeHelper;
 
+  @Autowired private KeysetPaginationHelper keysetPaginationHelper;
+
+  @Autowired private FacetedSearchHelper facetedSearchHelper;
+
+  @Autowired private GeoSearchHelper geoSearchHelper;
+
+  @Autowired private MapClusterHelper mapClusterHelper;
+
   @Override
   public Optional<ArtObject> createArtObject(String tenderId, String winnerProposalId) {
     return tenderService
@@ -64,6 +98,12 @@ public class ArtObjectService implements IArtObjectService {
 
                           artObject.setCreatedAt(new Date());
                           artObject.setStatus("NEW");
+                          artObject.setTitleTokens(
+                              SearchTextUtils.prefixes(artObject.getTitle()));
+                          artObject.setLocationPath(
+                              LocationUtils.path(
+                                  artObject.getLocation(), artObject.getLocationLeafId()));
+                          artObject.setGeoPoint(LocationUtils.point(artObject.getLocation()));
 
                           return artObjectRepository.save(artObject);
                         }));
@@ -72,6 +112,10 @@ public class ArtObjectService implements IArtObjectService {
   @Override
   public Optional<ArtObject> updateArtObject(String id, ArtObject artObject) {
     if (artObjectRepository.existsById(id)) {
+      artObject.setTitleTokens(SearchTextUtils.prefixes(artObject.getTitle()));
+      artObject.setLocationPath(
+          LocationUtils.path(artObject.getLocation(), artObject.getLocationLeafId()));
+      artObject.setGeoPoint(LocationUtils.point(artObject.getLocation()));
       return Optional.of(artObjectRepository.save(artObject));
     }
     return Optional.empty();
@@ -90,44 +134,193 @@ public class ArtObjectService implements IArtObjectService {
   @Override
   public List<ArtObject> searchArtObjects(ArtObjectSearchCriteria criteria) {
     Query query = buildSearchQuery(criteria);
-    final Pageable pageable =
-        PageRequest.of(
-            criteria.getPage(),
-            criteria.getSize(),
-            Sort.by(Sort.Direction.fromString(criteria.getSortOrder()), criteria.getSortBy()));
+    // The sort is already set by buildSearchQuery
+    final Pageable pageable = PageRequest.of(criteria.getPage(), criteria.getSize());
     query.with(pageable);
+    if (CARD_FIELDS.equals(criteria.getFields())) {
+      applyCardProjection(query);
+    }
     return mongoTemplate.find(query, ArtObject.class);
   }
 
-  private Query buildSearchQuery(ArtObjectSearchCriteria criteria) {
-    Query query = new Query();
-    List<Criteria> criteriaList = new ArrayList<>();
+  /** Restricts the query to the fields shown on an art object card. */
+  private void applyCardProjection(Query query) {
+    query
+        .fields()
+        .include(
+            "id",
+            "title",
+            "cover",
+            "status",
+            "category",
+            "location.addressLine",
+            "locationLeafId",
+            "deliveryDate",
+            "createdAt",
+            "budget",
+            "owner",
+            "supplier");
+  }
 
-    if (StringUtils.isNotBlank(criteria.getTitle())) {
-      criteriaList.add(Criteria.where("title").regex(criteria.getTitle(), "i"));
+  /**
+   * Searches for art objects page by page, continuing after the cursor of the previous page
+   * instead of skipping the previous pages.
+   *
+   * @param criteria The search criteria; {@code page} is ignored in favour of {@code after} and
+   *     the full-text {@code text} search is not supported.
+   * @return The page and the cursor of the next one.
+   * @throws IllegalArgumentException if the cursor is malformed or relevance sort is requested.
+   */
+  @Override
+  public CursorPage<ArtObject> scrollArtObjects(ArtObjectSearchCriteria criteria) {
+    if (SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      throw new IllegalArgumentException("Relevance sort is not supported when scrolling");
     }
-    if (StringUtils.isNotBlank(criteria.getUserId())) {
-      Criteria ownerCriteria = Criteria.where("owner.id").is(criteria.getUserId());
-      Criteria supplierCriteria = Criteria.where("supplier.id").is(criteria.getUserId());
-      criteriaList.add(new Criteria().orOperator(ownerCriteria, supplierCriteria));
+    return keysetPaginationHelper.find(
+        ArtObject.class,
+        buildSearchCriteria(criteria),
+        criteria.getSortBy(),
+        SCROLL_SORT_FIELDS,
+        Sort.Direction.fromString(criteria.getSortOrder()),
+        criteria.getSize(),
+        criteria.getAfter(),
+        CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+  }
+
+  /**
+   * Searches for a page of art objects together with the total and the number of art objects per
+   * status, category and location for the same search, all with a single aggregation.
+   *
+   * @param criteria The search criteria; relevance sort is not supported.
+   * @return The page, the total and the counts per value of each faceted field.
+   * @throws IllegalArgumentException if relevance sort is requested.
+   */
+  @Override
+  public FacetedPage<ArtObject> facetArtObjects(ArtObjectSearchCriteria criteria) {
+    if (SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      throw new IllegalArgumentException("Relevance sort is not supported with facets");
     }
+    Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
+    return facetedSearchHelper.find(
+        ArtObject.class,
+        StringUtils.isNotBlank(criteria.getText())
+            ? TextCriteria.forDefaultLanguage().matching(criteria.getText())
+            : null,
+        buildCommonCriteria(criteria),
+        buildFacetFilters(criteria),
+        Sort.by(direction, criteria.getSortBy(), "id"),
+        criteria.getPage(),
+        criteria.getSize(),
+        CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+  }
 
+  /**
+   * Finds art objects around a point, nearest first, or inside a bounding box.
+   *
+   * @param criteria The centre and radius or the bounding box and optional statuses.
+   * @return The art objects with their distance from the centre.
+   * @throws IllegalArgumentException if neither a valid centre nor a valid bounding box is given.
+   */
+  @Override
+  public List<NearbyItem<ArtObject>> findArtObjectsNear(GeoSearchCriteria criteria) {
+    List<Criteria> filters = new ArrayList<>();
     if (!CollectionUtils.isEmpty(criteria.getStatuses())) {
-      criteriaList.add(Criteria.where("status").in(criteria.getStatuses()));
+      filters.add(Criteria.where("status").in(criteria.getStatuses()));
     }
+    return geoSearchHelper.find(
+        ArtObject.class,
+        filters,
+        criteria,
+        CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+  }
+
+  /**
+   * Clusters the art objects of a map view on a grid depending on the zoom level.
+   *
+   * @param criteria The bounding box, the zoom level and optional statuses.
+   * @return The clusters with their centroid, size and a few art object IDs.
+   * @throws IllegalArgumentException if the box is invalid or too large for the zoom level.
+   */
+  @Override
+  public List<MapCluster> clusterArtObjects(GeoSearchCriteria criteria) {
+    List<Criteria> filters = new ArrayList<>();
+    if (!CollectionUtils.isEmpty(criteria.getStatuses())) {
+      filters.add(Criteria.where("status").in(criteria.getStatuses()));
+    }
+    return mapClusterHelper.find(
+        ArtObject.class,
+        filters,
+        MapClusterHelper.cacheKey(ArtObject.class, criteria.getStatuses()),
+        criteria);
+  }
+
+  private Query buildSearchQuery(ArtObjectSearchCriteria criteria) {
+    Query query =
+        StringUtils.isNotBlank(criteria.getText())
+            ? TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(criteria.getText()))
+            : new Query();
+    List<Criteria> criteriaList = buildSearchCriteria(criteria);
 
     if (!criteriaList.isEmpty()) {
       Criteria combinedCriteria = new Criteria().andOperator(criteriaList.toArray(new Criteria[0]));
       query.addCriteria(combinedCriteria);
     }
 
-    Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
-    Sort sort = Sort.by(direction, criteria.getSortBy());
-    query.with(sort);
+    if (query instanceof TextQuery textQuery && SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      textQuery.sortByScore();
+    } else {
+      Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
+      Sort sort = Sort.by(direction, criteria.getSortBy());
+      query.with(sort);
+    }
 
     return query;
   }
 
+  private List<Criteria> buildSearchCriteria(ArtObjectSearchCriteria criteria) {
+    List<Criteria> criteriaList = buildCommonCriteria(criteria);
+    buildFacetFilters(criteria).values().stream()
+        .filter(Objects::nonNull)
+        .forEach(criteriaList::add);
+    return criteriaList;
+  }
+
+  /** Returns the filters that don't belong to a faceted field. */
+  private List<Criteria> buildCommonCriteria(ArtObjectSearchCriteria criteria) {
+    List<Criteria> criteriaList = new ArrayList<>();
+
+    if (StringUtils.isNotBlank(criteria.getTitle())) {
+      List<String> tokens = SearchTextUtils.queryTokens(criteria.getTitle());
+      if (!tokens.isEmpty()) {
+        criteriaList.add(Criteria.where("titleTokens").all(tokens));
+      }
+    }
+    if (StringUtils.isNotBlank(criteria.getUserId())) {
+      Criteria ownerCriteria = Criteria.where("owner.id").is(criteria.getUserId());
+      Criteria supplierCriteria = Criteria.where("supplier.id").is(criteria.getUserId());
+      criteriaList.add(new Criteria().orOperator(ownerCriteria, supplierCriteria));
+    }
+
+    return criteriaList;
+  }
+
+  /** Returns the filters on the faceted fields, which {@link #facetArtObjects} counts apart. */
+  private Map<String, Criteria> buildFacetFilters(ArtObjectSearchCriteria criteria) {
+    Map<String, Criteria> facetFilters = new LinkedHashMap<>();
+    facetFilters.put(
+        "status",
+        CollectionUtils.isEmpty(criteria.getStatuses())
+            ? null
+            : Criteria.where("status").in(criteria.getStatuses()));
+    facetFilters.put("category", null);
+    facetFilters.put(
+        "locationLeafId",
+        CollectionUtils.isEmpty(criteria.getLocationLeafIds())
+            ? null
+            : Criteria.where("locationPath").in(criteria.getLocationLeafIds()));
+    return facetFilters;
+  }
+
   @Override
   public long countArtObjects(List<String> statuses, String userId) {
     Query query = new Query();
@@ -159,6 +352,7 @@ public class ArtObjectService implements IArtObjectService {
             ao -> {
               if (artObject.getTitle() != null) {
                 ao.setTitle(artObject.getTitle());
+                ao.setTitleTokens(SearchTextUtils.prefixes(artObject.getTitle()));
               }
               if (artObject.getTopContributors() != null) {
                 ao.setTopContributors(artObject.getTopContributors());
@@ -187,6 +381,8 @@ public class ArtObjectService implements IArtObjectService {
               if (artObject.getLocationLeafId() != null) {
                 ao.setLocationLeafId(artObject.getLocationLeafId());
               }
+              ao.setLocationPath(LocationUtils.path(ao.getLocation(), ao.getLocationLeafId()));
+              ao.setGeoPoint(LocationUtils.point(ao.getLocation()));
               if (artObject.getDeliveryDate() != null) {
                 ao.setDeliveryDate(artObject.getDeliveryDate());
               }
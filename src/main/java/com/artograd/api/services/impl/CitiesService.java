@@ -1,9 +1,15 @@
 package com.artograd.api.services.impl;
 
 import com.artograd.api.model.City;
-import com.artograd.api.repositories.CitiesRepository;
+import com.artograd.api.model.GeoPosition;
+import com.artograd.api.model.NearbyItem;
+import com.artograd.api.model.system.VersionedData;
 import com.artograd.api.services.ICitiesService;
+import com.artograd.api.services.system.CityIndex;
+import com.artograd.api.services.system.ReferenceDataCache;
+import com.artograd.api.utils.LocationUtils;
 import java.util.List;
+import java.util.Optional;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,10 +18,62 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 public class CitiesService implements ICitiesService {
 
-  private CitiesRepository cityRepository;
+  private static final int MAX_POSITIONS = 1000;
+
+  private CityIndex cityIndex;
+
+  private ReferenceDataCache referenceDataCache;
 
   @Override
   public List<City> getAllCities() {
-    return cityRepository.findAll();
+    return getVersionedCities().data();
+  }
+
+  /**
+   * Returns all cities from the reference data cache.
+   *
+   * @return The cities and their entity tag.
+   */
+  @Override
+  public VersionedData<List<City>> getVersionedCities() {
+    return referenceDataCache.getCities();
+  }
+
+  /**
+   * Finds the city nearest to a position.
+   *
+   * @param lat The latitude.
+   * @param lng The longitude.
+   * @return The nearest city with its distance in metres or empty if there are no cities.
+   * @throws IllegalArgumentException if the position is out of range.
+   */
+  @Override
+  public Optional<NearbyItem<City>> getNearestCity(double lat, double lng) {
+    LocationUtils.checkPosition(lat, lng);
+    return cityIndex.nearest(lat, lng);
+  }
+
+  /**
+   * Finds the city nearest to each of the positions.
+   *
+   * @param positions The positions, at most 1000.
+   * @return The nearest city of each position in the same order, with an empty item if there are
+   *     no cities.
+   * @throws IllegalArgumentException if there are too many positions or one is out of range.
+   */
+  @Override
+  public List<NearbyItem<City>> getNearestCities(List<GeoPosition> positions) {
+    if (positions.size() > MAX_POSITIONS) {
+      throw new IllegalArgumentException("At most " + MAX_POSITIONS + " positions are allowed");
+    }
+    positions.forEach(
+        position -> LocationUtils.checkPosition(position.getLatitude(), position.getLongitude()));
+    return positions.stream()
+        .map(
+            position ->
+                cityIndex
+                    .nearest(position.getLatitude(), position.getLongitude())
+                    .orElseGet(() -> new NearbyItem<>(null, null)))
+        .toList();
   }
 }
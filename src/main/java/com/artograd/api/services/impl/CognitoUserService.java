@@ -8,27 +8,34 @@ import com.artograd.api.model.enums.UserRole;
 import com.artograd.api.model.system.UserTokenClaims;
 import com.artograd.api.services.IEmailWhitelistService;
 import com.artograd.api.services.IUserService;
+import com.artograd.api.services.system.TokenVerifier;
+import com.artograd.api.services.system.UserProfileCache;
 import com.artograd.api.utils.CommonUtils;
-import com.auth0.jwk.JwkProvider;
-import com.auth0.jwk.JwkProviderBuilder;
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.auth0.jwt.interfaces.RSAKeyProvider;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUserToGroupRequest;
@@ -39,6 +46,7 @@ import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGr
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserResponse;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminUpdateUserAttributesRequest;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
 
 @Service
 public class CognitoUserService implements IUserService {
@@ -71,19 +79,36 @@ public class CognitoUserService implements IUserService {
   private static final Set<UserAttributeKey> OFFICIAL_VISIBLE_FOR_ARTISTS =
       EnumSet.of(UserAttributeKey.EMAIL, UserAttributeKey.PHONE_NUMBER);
   private static final Logger logger = LoggerFactory.getLogger(CognitoUserService.class);
+  private static final String TOKEN_CLAIMS_ATTRIBUTE =
+      CognitoUserService.class.getName() + ".TOKEN_CLAIMS";
 
   @Value("${aws.cognito.userPoolId}")
   private String userPoolId;
 
   @Autowired private UserServiceHelper userServiceHelper;
+
+  @Autowired private TokenVerifier tokenVerifier;
+
+  @Autowired private CognitoIdentityProviderClient cognitoClient;
+
+  @Autowired private UserProfileCache userProfileCache;
+
+  @Value("${aws.cognito.batch-parallelism:8}")
+  private int batchParallelism;
+
+  private final ExecutorService cognitoExecutor = Executors.newVirtualThreadPerTaskExecutor();
   
   @Autowired
   private IEmailWhitelistService emailWhitelistService;
 
+  @PreDestroy
+  public void shutdown() {
+    cognitoExecutor.shutdown();
+  }
+
   @Override
   public boolean deleteUserByUsername(String userName) {
-    try (CognitoIdentityProviderClient cognitoClient =
-        CognitoIdentityProviderClient.builder().build()) {
+    try {
       AdminDeleteUserRequest deleteRequest =
           AdminDeleteUserRequest.builder().userPoolId(userPoolId).username(userName).build();
 
@@ -92,13 +117,14 @@ public class CognitoUserService implements IUserService {
     } catch (Exception e) {
       logger.error("Error deleting user by username: {}", e.getMessage(), e);
       return false;
+    } finally {
+      userProfileCache.invalidate(userName);
     }
   }
 
   @Override
   public boolean updateUserAttributes(String userName, List<UserAttribute> attributes) {
-    try (CognitoIdentityProviderClient cognitoClient =
-        CognitoIdentityProviderClient.builder().build()) {
+    try {
       List<AttributeType> attributeTypes = new ArrayList<>();
       for (UserAttribute userAttribute : attributes) {
         attributeTypes.add(
@@ -125,62 +151,61 @@ public class CognitoUserService implements IUserService {
     } catch (Exception e) {
       logger.error("Error updating user attributes by username: {}", e.getMessage(), e);
       return false;
+    } finally {
+      userProfileCache.invalidate(userName);
     }
   }
 
   @Override
   public Optional<User> getUserByUsername(String username) {
-    try (CognitoIdentityProviderClient cognitoClient =
-        CognitoIdentityProviderClient.builder().build()) {
-      AdminGetUserRequest getUserRequest =
-          AdminGetUserRequest.builder().userPoolId(userPoolId).username(username).build();
-
-      AdminGetUserResponse getUserResponse = cognitoClient.adminGetUser(getUserRequest);
-      List<UserAttribute> userAttrsResult = new ArrayList<>();
-      for (AttributeType attr : getUserResponse.userAttributes()) {
-        userAttrsResult.add(new UserAttribute(attr.name(), attr.value()));
-      }
-
-      AdminListGroupsForUserRequest requestGetGroups =
-          AdminListGroupsForUserRequest.builder().username(username).userPoolId(userPoolId).build();
-
-      AdminListGroupsForUserResponse responseGroups =
-          cognitoClient.adminListGroupsForUser(requestGetGroups);
-
-      if (!responseGroups.groups().isEmpty()) {
-        userAttrsResult.add(
-            new UserAttribute("cognito:groups", responseGroups.groups().get(0).groupName()));
-      }
-
-      return Optional.of(new User(userAttrsResult));
+    try {
+      return userProfileCache.get(username, this::fetchUser);
     } catch (Exception e) {
       logger.error("Error fetching user by username: {}", e.getMessage(), e);
       return Optional.empty();
     }
   }
 
+  /**
+   * Retrieves several users at once. Lookups run concurrently, but no more than the configured
+   * number of them hit Cognito at the same time.
+   *
+   * @param usernames the usernames to look up
+   * @return the found users keyed by username; unknown users are left out
+   */
   @Override
-  public Optional<UserTokenClaims> getUserTokenClaims(HttpServletRequest request) {
-    try {
-      String cognitoIssuer = getCognitoIssuer(userPoolId);
-      JwkProvider provider = new JwkProviderBuilder(cognitoIssuer).build();
-      Algorithm algorithm = Algorithm.RSA256(new CognitoRSAKeyProvider(provider));
+  public Map<String, User> getUsersByUsernames(Collection<String> usernames) {
+    Semaphore permits = new Semaphore(batchParallelism);
+    Map<String, CompletableFuture<Optional<User>>> futures = new LinkedHashMap<>();
+    for (String username : new LinkedHashSet<>(usernames)) {
+      futures.put(
+          username,
+          CompletableFuture.supplyAsync(
+              () -> getUserByUsernameWithPermit(username, permits), cognitoExecutor));
+    }
 
-      JWTVerifier verifier = JWT.require(algorithm).withIssuer(cognitoIssuer).build();
+    Map<String, User> users = new LinkedHashMap<>();
+    futures.forEach((username, future) -> future.join().ifPresent(u -> users.put(username, u)));
+    return users;
+  }
 
-      String token = CommonUtils.parseToken(request);
-      if (token != null) {
-        DecodedJWT jwt = verifier.verify(token);
-        // uncomment it for local usage and debugging because time in AWS may differ from local time
-        // and
-        // token may be invalid because earliest usage time is before issuing
-        // DecodedJWT jwt = JWT.decode(token);
-        return Optional.of(extractClaims(jwt));
-      }
-    } catch (Exception e) {
-      logger.error("Error fetching user token claims: {}", e.getMessage(), e);
+  /**
+   * Resolves the claims of the bearer token of the request. The result is memoized in a request
+   * attribute, so claims are extracted at most once per request.
+   *
+   * @param request the current request
+   * @return the claims or empty if the request carries no valid token
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Optional<UserTokenClaims> getUserTokenClaims(HttpServletRequest request) {
+    Object cached = request.getAttribute(TOKEN_CLAIMS_ATTRIBUTE);
+    if (cached instanceof Optional<?>) {
+      return (Optional<UserTokenClaims>) cached;
     }
-    return Optional.empty();
+    Optional<UserTokenClaims> claims = resolveUserTokenClaims(request);
+    request.setAttribute(TOKEN_CLAIMS_ATTRIBUTE, claims);
+    return claims;
   }
 
   @Override
@@ -203,8 +228,7 @@ public class CognitoUserService implements IUserService {
    */
   @Override
   public boolean updateUserRole(String userName, UserRole role) {
-    try (CognitoIdentityProviderClient cognitoClient =
-        CognitoIdentityProviderClient.builder().build()) {
+    try {
       cognitoClient.adminAddUserToGroup(
           AdminAddUserToGroupRequest.builder()
               .groupName(role.getRoleName())
@@ -215,6 +239,8 @@ public class CognitoUserService implements IUserService {
     } catch (Exception e) {
       logger.error("Error updating user role by username: {}", e.getMessage(), e);
       return false;
+    } finally {
+      userProfileCache.invalidate(userName);
     }
   }
 
@@ -265,19 +291,108 @@ public class CognitoUserService implements IUserService {
         && OFFICIAL_VISIBLE_FOR_ARTISTS.contains(attributeName);
   }
 
-  private String getCognitoIssuer(String userPoolId) {
-    String region = userPoolId.substring(0, userPoolId.indexOf("_"));
-    return String.format("https://cognito-idp.%s.amazonaws.com/%s", region, userPoolId);
+  private Optional<User> getUserByUsernameWithPermit(String username, Semaphore permits) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+    try {
+      return getUserByUsername(username);
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Loads the user and its group from Cognito.
+   *
+   * @param username the username
+   * @return the user or {@code null} if Cognito doesn't know the user
+   */
+  private User fetchUser(String username) {
+    AdminListGroupsForUserRequest requestGetGroups =
+        AdminListGroupsForUserRequest.builder().username(username).userPoolId(userPoolId).build();
+    // both calls only need the username, so the groups are fetched while the user is loaded
+    CompletableFuture<AdminListGroupsForUserResponse> groupsFuture =
+        CompletableFuture.supplyAsync(
+            () -> cognitoClient.adminListGroupsForUser(requestGetGroups), cognitoExecutor);
+    try {
+      AdminGetUserRequest getUserRequest =
+          AdminGetUserRequest.builder().userPoolId(userPoolId).username(username).build();
+
+      AdminGetUserResponse getUserResponse = cognitoClient.adminGetUser(getUserRequest);
+      List<UserAttribute> userAttrsResult = new ArrayList<>();
+      for (AttributeType attr : getUserResponse.userAttributes()) {
+        userAttrsResult.add(new UserAttribute(attr.name(), attr.value()));
+      }
+
+      AdminListGroupsForUserResponse responseGroups = join(groupsFuture);
+
+      if (!responseGroups.groups().isEmpty()) {
+        userAttrsResult.add(
+            new UserAttribute("cognito:groups", responseGroups.groups().get(0).groupName()));
+      }
+
+      return new User(userAttrsResult);
+    } catch (UserNotFoundException e) {
+      groupsFuture.cancel(true);
+      logger.warn("User '{}' not found", username);
+      return null;
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private Optional<UserTokenClaims> resolveUserTokenClaims(HttpServletRequest request) {
+    try {
+      // Spring Security has already verified the bearer token, so its claims are reused as is
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+        Jwt jwt = jwtAuthentication.getToken();
+        List<String> roles = jwt.getClaimAsStringList("cognito:groups");
+        return Optional.of(
+            extractClaims(
+                jwt.getClaimAsString("cognito:username"),
+                roles == null ? null : roles.toArray(new String[0]),
+                jwt.getClaimAsString("email")));
+      }
+
+      String token = CommonUtils.parseToken(request);
+      if (token != null) {
+        DecodedJWT jwt = tokenVerifier.verify(token);
+        // uncomment it for local usage and debugging because time in AWS may differ from local time
+        // and
+        // token may be invalid because earliest usage time is before issuing
+        // DecodedJWT jwt = JWT.decode(token);
+        return Optional.of(
+            extractClaims(
+                jwt.getClaim("cognito:username").asString(),
+                jwt.getClaim("cognito:groups").asArray(String.class),
+                jwt.getClaim("email").asString()));
+      }
+    } catch (Exception e) {
+      logger.error("Error fetching user token claims: {}", e.getMessage(), e);
+    }
+    return Optional.empty();
   }
 
-  private UserTokenClaims extractClaims(DecodedJWT jwt) {
+  private UserTokenClaims extractClaims(String username, String[] roles, String email) {
     UserTokenClaims tokenClaims = new UserTokenClaims();
-    tokenClaims.setUsername(jwt.getClaim("cognito:username").asString());
-    String[] roles = jwt.getClaim("cognito:groups").asArray(String.class);
+    tokenClaims.setUsername(username);
     UserRole userRole = extractUserRole(roles);
 
     if (userRole == UserRole.ANONYMOUS_OR_CITIZEN) {
-      String email = jwt.getClaim("email").asString();
       if (email != null && emailWhitelistService.isEmailWhitelisted(email)) {
         boolean updated = updateUserRole(tokenClaims.getUsername(), UserRole.OFFICIAL);
         if (updated) {
@@ -307,33 +422,4 @@ public class CognitoUserService implements IUserService {
     }
     return UserRole.fromString(roles[0]);
   }
-
-  private static class CognitoRSAKeyProvider implements RSAKeyProvider {
-
-    private final JwkProvider jwkProvider;
-
-    public CognitoRSAKeyProvider(JwkProvider jwkProvider) {
-      this.jwkProvider = jwkProvider;
-    }
-
-    @Override
-    public RSAPublicKey getPublicKeyById(String kid) {
-      try {
-        return (RSAPublicKey) jwkProvider.get(kid).getPublicKey();
-      } catch (Exception e) {
-        logger.error("Error fetching public key: {}", e.getMessage(), e);
-        return null;
-      }
-    }
-
-    @Override
-    public RSAPrivateKey getPrivateKey() {
-      return null;
-    }
-
-    @Override
-    public String getPrivateKeyId() {
-      return null;
-    }
-  }
 }
@@ -0,0 +1,359 @@
+package com.artograd.api.services.impl;
+
+import com.artograd.api.helpers.ImageRenditionHelper;
+import com.artograd.api.helpers.S3UploadHelper;
+import com.artograd.api.model.FileInfo;
+import com.artograd.api.model.ImageRendition;
+import com.artograd.api.model.PresignRequest;
+import com.artograd.api.model.PresignedUpload;
+import com.artograd.api.model.system.StoredFile;
+import com.artograd.api.services.IFileUploadService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+/**
+ * Stores uploaded files in S3 and creates the renditions of images. Files either pass through the
+ * API as multipart requests or are uploaded by the client straight to S3 with a presigned URL, in
+ * which case the renditions are created when S3 reports the new object and their info is recorded
+ * under the object key. The narrowest rendition doubles as the snap of the image.
+ */
+@Service
+public class FileUploadService implements IFileUploadService {
+
+  private static final Logger logger = LoggerFactory.getLogger(FileUploadService.class);
+
+  private static final String SNAPS_FOLDER = "snaps";
+  private static final String RENDITION_CONTENT_TYPE = "image/jpeg";
+  private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+  @Value("${aws.s3.bucket-name}")
+  private String bucketName;
+
+  @Value("${aws.cloudfront.distribution-domain}")
+  private String cloudFrontDomainName;
+
+  @Value("${aws.s3.presign.ttl:PT15M}")
+  private Duration presignTtl;
+
+  @Value("${aws.s3.presign.max-size:100MB}")
+  private DataSize presignMaxSize;
+
+  /** Top-level folder of presigned uploads; the bucket notification is filtered on it too. */
+  @Value("${aws.s3.presign.prefix:uploads}")
+  private String presignPrefix;
+
+  @Autowired private S3Client s3Client;
+
+  @Autowired private S3Presigner s3Presigner;
+
+  @Autowired private ImageRenditionHelper imageRenditionHelper;
+
+  @Autowired private S3UploadHelper s3UploadHelper;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  /**
+   * Uploads a file passed through the API and, for images, its renditions. Files are keyed by
+   * the SHA-256 of their content: a file that was uploaded before is neither stored nor rendered
+   * again, its stored info is returned under the new name instead.
+   *
+   * @param file The uploaded file.
+   * @param tenderFolder The name of the tender folder.
+   * @param subFolder The name of the sub-folder within the tender folder.
+   * @return The info of the stored file.
+   * @throws IOException if the file can't be read.
+   */
+  @Override
+  public FileInfo uploadFile(MultipartFile file, String tenderFolder, String subFolder)
+      throws IOException {
+    String originalFilename = file.getOriginalFilename();
+    String hash = contentHash(file);
+    StoredFile stored = mongoTemplate.findById(hash, StoredFile.class);
+    if (stored != null) {
+      logger.debug("Reusing the stored file {} for {}", hash, originalFilename);
+      return copy(stored.getFileInfo(), originalFilename);
+    }
+
+    String extension = FilenameUtils.getExtension(originalFilename).toLowerCase();
+    String key = key(tenderFolder, subFolder, hash, extension);
+
+    // The original is uploaded while the renditions are created, then all uploads are awaited
+    List<CompletableFuture<Void>> uploads = new ArrayList<>();
+    uploads.add(
+        s3UploadHelper.upload(
+            key, file.getInputStream(), file.getSize(), file.getContentType()));
+
+    FileInfo fileInfo = fileInfo(key, originalFilename, file.getSize());
+    if (!fileInfo.getRenditions().isEmpty()) {
+      try (InputStream inputStream = file.getInputStream()) {
+        fileInfo.setRenditions(uploadRenditions(inputStream, key, uploads));
+      }
+    }
+    s3UploadHelper.awaitAll(uploads);
+    recordStoredFile(hash, fileInfo);
+    return fileInfo;
+  }
+
+  /**
+   * Creates a URL the client can upload a file to directly, without passing it through the API.
+   * The URL only accepts the content type and size it was created for.
+   *
+   * @param request The folders, name, content type and size of the file.
+   * @return The URL, the headers to send with it and the info of the file once uploaded.
+   * @throws IllegalArgumentException if a field is missing or the file is too large.
+   */
+  @Override
+  public PresignedUpload presignUpload(PresignRequest request) {
+    if (StringUtils.isAnyBlank(
+        request.getTenderFolder(),
+        request.getSubFolder(),
+        request.getFileName(),
+        request.getContentType())) {
+      throw new IllegalArgumentException("Folders, file name and content type are required");
+    }
+    if (request.getSize() <= 0 || request.getSize() > presignMaxSize.toBytes()) {
+      throw new IllegalArgumentException("The file is empty or too large");
+    }
+    String extension = FilenameUtils.getExtension(request.getFileName()).toLowerCase();
+    String key =
+        presignPrefix
+            + "/"
+            + key(
+                request.getTenderFolder(),
+                request.getSubFolder(),
+                UUID.randomUUID().toString().replace("-", ""),
+                extension);
+
+    PresignedPutObjectRequest presigned =
+        s3Presigner.presignPutObject(
+            presign ->
+                presign
+                    .signatureDuration(presignTtl)
+                    .putObjectRequest(
+                        put ->
+                            put.bucket(bucketName)
+                                .key(key)
+                                .contentType(request.getContentType())
+                                .contentLength(request.getSize())));
+
+    Map<String, String> headers =
+        presigned.signedHeaders().entrySet().stream()
+            .filter(header -> !"host".equalsIgnoreCase(header.getKey()))
+            .collect(
+                Collectors.toMap(Map.Entry::getKey, header -> String.join(",", header.getValue())));
+    return new PresignedUpload(
+        presigned.url().toString(),
+        headers,
+        Date.from(presigned.expiration()),
+        fileInfo(key, request.getFileName(), request.getSize()));
+  }
+
+  /**
+   * Creates the renditions of an image uploaded straight to S3 and records the info of the file
+   * with their actual sizes under the object key. Only objects under the presign prefix are
+   * processed: files uploaded through the API already have their renditions, and the renditions
+   * themselves as well as objects that aren't images are skipped.
+   *
+   * @param key The key of the new object.
+   * @throws IOException if the object can't be read.
+   */
+  @Override
+  public void processUploadedObject(String key) throws IOException {
+    String extension = FilenameUtils.getExtension(key).toLowerCase();
+    if (!key.startsWith(presignPrefix + "/")
+        || isSnap(key)
+        || !isImage(extension)
+        || !imageRenditionHelper.canRender(extension)) {
+      return;
+    }
+    FileInfo fileInfo;
+    try (ResponseInputStream<GetObjectResponse> inputStream =
+        s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build())) {
+      fileInfo =
+          fileInfo(key, FilenameUtils.getName(key), inputStream.response().contentLength());
+      List<CompletableFuture<Void>> uploads = new ArrayList<>();
+      fileInfo.setRenditions(uploadRenditions(inputStream, key, uploads));
+      s3UploadHelper.awaitAll(uploads);
+    }
+    StoredFile stored = new StoredFile();
+    stored.setId(key);
+    stored.setFileInfo(fileInfo);
+    stored.setStoredAt(new Date());
+    // S3 may report an object more than once, so the record is replaced rather than inserted
+    mongoTemplate.save(stored);
+    logger.debug("Created the renditions of {}", key);
+  }
+
+  /**
+   * Returns the info of a file uploaded with a presigned URL once its renditions have been
+   * created, with their actual sizes and only the renditions that exist.
+   *
+   * @param key The key of the object, as in the path of the presigned file info.
+   * @return The file info, or empty if the object isn't processed (yet) or isn't a presigned one.
+   */
+  @Override
+  public Optional<FileInfo> getUploadedFile(String key) {
+    if (StringUtils.isBlank(key) || !key.startsWith(presignPrefix + "/")) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(mongoTemplate.findById(key, StoredFile.class))
+        .map(StoredFile::getFileInfo);
+  }
+
+  /**
+   * Builds the info of a stored file. Images that can be decoded list a rendition for each
+   * configured width at height 0. For presigned uploads these are placeholders: an image narrower
+   * than a width gets fewer renditions, so clients have to fetch the recorded info with {@link
+   * #getUploadedFile} once it is processed. Other uploads replace them right away.
+   */
+  private FileInfo fileInfo(String key, String originalFilename, long size) {
+    String extension = FilenameUtils.getExtension(key);
+    String fileType = determineFileType(extension);
+    String fileUrl = cloudFrontDomainName + "/" + key;
+
+    List<ImageRendition> renditions = new ArrayList<>();
+    if (isImage(extension) && imageRenditionHelper.canRender(extension)) {
+      for (int width : imageRenditionHelper.getWidths()) {
+        renditions.add(new ImageRendition(width, 0, renditionUrl(key, width)));
+      }
+    }
+    String snapPath = renditions.isEmpty() ? fileUrl : renditions.get(0).getPath();
+    return new FileInfo(
+        fileUrl, snapPath, originalFilename, size, 0, fileType, extension, renditions);
+  }
+
+  /** Creates the renditions and starts their uploads, adding them to the pending uploads. */
+  private List<ImageRendition> uploadRenditions(
+      InputStream inputStream, String key, List<CompletableFuture<Void>> uploads)
+      throws IOException {
+    List<ImageRenditionHelper.Rendition> rendered = imageRenditionHelper.render(inputStream);
+    List<ImageRendition> renditions = new ArrayList<>(rendered.size());
+    for (ImageRenditionHelper.Rendition rendition : rendered) {
+      uploads.add(
+          s3UploadHelper.upload(
+              renditionKey(key, rendition.targetWidth()),
+              rendition.content(),
+              RENDITION_CONTENT_TYPE));
+      renditions.add(
+          new ImageRendition(
+              rendition.width(),
+              rendition.height(),
+              renditionUrl(key, rendition.targetWidth())));
+    }
+    return renditions;
+  }
+
+  /** Hashes the content in chunks rather than from a copy of the whole file. */
+  private static String contentHash(MultipartFile file) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    try (InputStream inputStream = file.getInputStream()) {
+      byte[] buffer = new byte[HASH_BUFFER_SIZE];
+      for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Records the stored file once all its uploads succeeded. A concurrent upload of the same
+   * content wrote the same keys, so losing the race to record it is fine.
+   */
+  private void recordStoredFile(String hash, FileInfo fileInfo) {
+    StoredFile stored = new StoredFile();
+    stored.setId(hash);
+    stored.setFileInfo(fileInfo);
+    stored.setStoredAt(new Date());
+    try {
+      mongoTemplate.insert(stored);
+    } catch (DuplicateKeyException e) {
+      logger.debug("The stored file {} was recorded concurrently", hash);
+    }
+  }
+
+  private static FileInfo copy(FileInfo stored, String name) {
+    return new FileInfo(
+        stored.getPath(),
+        stored.getSnapPath(),
+        name,
+        stored.getSize(),
+        0,
+        stored.getType(),
+        stored.getExtension(),
+        stored.getRenditions());
+  }
+
+  private static String key(
+      String tenderFolder, String subFolder, String fileName, String extension) {
+    return String.format("%s/%s/%s.%s", tenderFolder, subFolder, fileName, extension);
+  }
+
+  private String renditionUrl(String key, int width) {
+    return cloudFrontDomainName + "/" + renditionKey(key, width);
+  }
+
+  /**
+   * Returns the key of a rendition, named after the width it was created for: {@code a/b/name.png}
+   * has {@code a/b/snaps/name-320.jpg}.
+   */
+  private static String renditionKey(String key, int width) {
+    return String.format(
+        "%s%s/%s-%d.%s",
+        FilenameUtils.getPath(key),
+        SNAPS_FOLDER,
+        FilenameUtils.getBaseName(key),
+        width,
+        ImageRenditionHelper.FORMAT);
+  }
+
+  private static boolean isSnap(String key) {
+    return FilenameUtils.getPath(key).endsWith("/" + SNAPS_FOLDER + "/");
+  }
+
+  private static boolean isImage(String extension) {
+    return "image".equals(determineFileType(extension));
+  }
+
+  private static String determineFileType(String extension) {
+    if ("pdf".equals(extension)) {
+      return "iframe";
+    } else if (extension.matches("svg|png|jpg|heic|avif")) {
+      return "image";
+    }
+    return "attachment";
+  }
+}
@@ -1,29 +1,53 @@
 package com.artograd.api.services.impl;
 
+import com.artograd.api.helpers.ProposalLikeHelper;
 import com.artograd.api.model.Proposal;
+import com.artograd.api.model.ProposalSearchCriteria;
 import com.artograd.api.model.User;
 import com.artograd.api.model.UserAttribute;
 import com.artograd.api.model.enums.UserRole;
+import com.artograd.api.model.system.UserTokenClaims;
+import com.artograd.api.repositories.ProposalRepository;
 import com.artograd.api.services.IProposalService;
 import com.artograd.api.services.ITenderService;
 import com.artograd.api.services.IUserService;
-import jakarta.servlet.http.HttpServletRequest;
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.BiConsumer;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
 @AllArgsConstructor
 public class ProposalService implements IProposalService {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
+  /** Document keys {@link #saveExceptLikes} leaves as they are stored. */
+  private static final Set<String> NOT_SET_ON_UPDATE =
+      Set.of("_id", "_class", "likedByUsers", "likeCount");
+
   private ITenderService tenderService;
   private IUserService cognitoService;
+  private ProposalLikeHelper proposalLikeHelper;
+  private ProposalRepository proposalRepository;
+  private MongoTemplate mongoTemplate;
 
   /**
    * Retrieves a proposal by its ID within a specific tender.
@@ -34,13 +58,41 @@ public class ProposalService implements IProposalService {
    */
   @Override
   public Optional<Proposal> getProposal(String tenderId, String proposalId) {
-    return tenderService
-        .getTender(tenderId)
-        .flatMap(
-            tender ->
-                tender.getProposals().stream()
-                    .filter(proposal -> proposal.getId().equals(proposalId))
-                    .findFirst());
+    return proposalRepository.findByIdAndTenderId(proposalId, tenderId);
+  }
+
+  /**
+   * Retrieves one page of the proposals of a tender. The liking users are not loaded, only their
+   * count, so the page size doesn't depend on how popular the proposals are.
+   *
+   * @param tenderId The ID of the tender.
+   * @param criteria The page and sort order to return.
+   * @return The proposals of the requested page.
+   * @throws IllegalArgumentException if the page is negative, the size isn't positive or the sort
+   *     order is neither {@code asc} nor {@code desc}.
+   */
+  @Override
+  public List<Proposal> getProposals(String tenderId, ProposalSearchCriteria criteria) {
+    if (criteria.getPage() < 0 || criteria.getSize() < 1) {
+      throw new IllegalArgumentException("Page must not be negative and size must be positive");
+    }
+    String sortOrder = criteria.getSortOrder();
+    Sort.Direction direction =
+        Sort.Direction.fromOptionalString(sortOrder)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid sort order " + sortOrder));
+    String sortField = "likes".equals(criteria.getSortBy()) ? "likeCount" : "createdAt";
+    Pageable pageable =
+        PageRequest.of(
+            criteria.getPage(),
+            Math.min(criteria.getSize(), MAX_PAGE_SIZE),
+            Sort.by(direction, sortField).and(Sort.by(direction, "id")));
+
+    Query query = Query.query(Criteria.where("tenderId").is(tenderId)).with(pageable);
+    query.fields().exclude("likedByUsers");
+
+    List<Proposal> proposals = mongoTemplate.find(query, Proposal.class);
+    proposals.forEach(proposal -> proposal.setLikedByUsers(null));
+    return proposals;
   }
 
   /**
@@ -58,20 +110,18 @@ public class ProposalService implements IProposalService {
         .map(
             tender -> {
               proposal.setId(generateProposalId());
+              proposal.setTenderId(tenderId);
               proposal.setCreatedAt(new Date());
               proposal.setModifiedAt(new Date());
               proposal.setOwnerId(realUserName);
+              proposal.setLikedByUsers(new HashSet<>());
+              proposal.setLikeCount(0);
 
               enrichProposalWithOwnerData(proposal);
 
-              if (tender.getProposals() == null) {
-                tender.setProposals(new ArrayList<>());
-              }
-
-              tender.getProposals().add(proposal);
-              tenderService.updateTender(tender);
+              Proposal savedProposal = proposalRepository.save(proposal);
               boolean isCheckAndUpdateSuccess = checkAndUpdateArtistRole(realUserName);
-              return isCheckAndUpdateSuccess ? proposal : null;
+              return isCheckAndUpdateSuccess ? savedProposal : null;
             });
   }
 
@@ -94,18 +144,7 @@ public class ProposalService implements IProposalService {
    */
   @Override
   public boolean deleteProposal(String tenderId, String proposalId) {
-    return tenderService
-        .getTender(tenderId)
-        .map(
-            tender -> {
-              boolean removed =
-                  tender.getProposals().removeIf(proposal -> proposal.getId().equals(proposalId));
-              if (removed) {
-                tenderService.updateTender(tender);
-              }
-              return removed;
-            })
-        .orElse(false);
+    return proposalRepository.deleteByIdAndTenderId(proposalId, tenderId) > 0;
   }
 
   /**
@@ -119,64 +158,42 @@ public class ProposalService implements IProposalService {
   @Override
   public Optional<Proposal> updateProposal(
       String tenderId, String proposalId, Proposal updatedProposal) {
-    return tenderService
-        .getTender(tenderId)
-        .flatMap(
-            tender ->
-                tender.getProposals().stream()
-                    .filter(proposal -> proposal.getId().equals(proposalId))
-                    .findFirst()
-                    .map(
-                        proposal -> {
-                          updateExistingProposal(proposal, updatedProposal);
-                          tenderService.updateTender(tender);
-                          return proposal;
-                        }));
+    return getProposal(tenderId, proposalId)
+        .map(
+            proposal -> {
+              updateExistingProposal(proposal, updatedProposal);
+              return saveExceptLikes(proposal);
+            });
   }
 
   @Override
   public Optional<Proposal> likeProposal(String tenderId, String proposalId, String username) {
-    return modifyLikes(
-        tenderId, proposalId, username, (proposal, user) -> proposal.getLikedByUsers().add(user));
+    return proposalLikeHelper.like(tenderId, proposalId, username);
   }
 
   @Override
   public Optional<Proposal> unlikeProposal(String tenderId, String proposalId, String username) {
-    return modifyLikes(
-        tenderId,
-        proposalId,
-        username,
-        (proposal, user) -> proposal.getLikedByUsers().remove(user));
-  }
-
-  private Optional<Proposal> modifyLikes(
-      String tenderId, String proposalId, String username, BiConsumer<Proposal, String> operation) {
-    return getProposal(tenderId, proposalId)
-        .map(
-            proposal -> {
-              operation.accept(proposal, username);
-              return updateProposal(tenderId, proposalId, proposal).orElse(null);
-            });
+    return proposalLikeHelper.unlike(tenderId, proposalId, username);
   }
 
   @Override
   public boolean isProposalOperationAllowed(
-      String tenderId, String proposalId, HttpServletRequest request) {
+      String tenderId, String proposalId, Optional<UserTokenClaims> claims) {
     return getProposal(tenderId, proposalId)
         .map(
             proposal ->
-                cognitoService
-                    .getUserTokenClaims(request)
+                claims
                     .map(
-                        claims ->
-                            claims.getUsername() != null
-                                && claims.getUsername().equals(proposal.getOwnerId()))
+                        c ->
+                            c.getUsername() != null
+                                && c.getUsername().equals(proposal.getOwnerId()))
                     .orElse(false))
         .orElse(false);
   }
 
   private void updateExistingProposal(Proposal existingProposal, Proposal updatedProposal) {
     updatedProposal.setId(existingProposal.getId());
+    updatedProposal.setTenderId(existingProposal.getTenderId());
     updatedProposal.setCreatedAt(
         existingProposal.getCreatedAt()); // Preserve the original creation date
     updatedProposal.setModifiedAt(new Date()); // Update the modification date
@@ -184,12 +201,46 @@ public class ProposalService implements IProposalService {
 
     ModelMapper modelMapper = new ModelMapper();
     modelMapper.map(updatedProposal, existingProposal);
-    existingProposal.setLikedByUsers(
-        updatedProposal.getLikedByUsers()); // value of set is not copied so making it manually
 
     enrichProposalWithOwnerData(existingProposal);
   }
 
+  /**
+   * Writes every field of the proposal except its likes, which are only changed atomically by
+   * {@link ProposalLikeHelper}, so an update can't undo a concurrent like. Fields that are null
+   * are unset, as the converter leaves them out of the document, just like a full save would.
+   */
+  private Proposal saveExceptLikes(Proposal proposal) {
+    Document document = new Document();
+    mongoTemplate.getConverter().write(proposal, document);
+    Update update = new Update();
+    document.forEach(
+        (key, value) -> {
+          if (!NOT_SET_ON_UPDATE.contains(key)) {
+            update.set(key, value);
+          }
+        });
+    mongoTemplate
+        .getConverter()
+        .getMappingContext()
+        .getRequiredPersistentEntity(Proposal.class)
+        .doWithProperties(
+            (PropertyHandler<MongoPersistentProperty>)
+                property -> {
+                  String field = property.getFieldName();
+                  if (!property.isIdProperty()
+                      && !NOT_SET_ON_UPDATE.contains(field)
+                      && !document.containsKey(field)) {
+                    update.unset(field);
+                  }
+                });
+    return mongoTemplate.findAndModify(
+        Query.query(Criteria.where("id").is(proposal.getId())),
+        update,
+        FindAndModifyOptions.options().returnNew(true),
+        Proposal.class);
+  }
+
   private void enrichProposalWithOwnerData(Proposal proposal) {
     if (StringUtils.isNotBlank(proposal.getOwnerId())) {
       cognitoService
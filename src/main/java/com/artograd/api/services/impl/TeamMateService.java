@@ -1,8 +1,9 @@
 package com.artograd.api.services.impl;
 
 import com.artograd.api.model.TeamMate;
-import com.artograd.api.repositories.TeamMateRepository;
+import com.artograd.api.model.system.VersionedData;
 import com.artograd.api.services.ITeamMateService;
+import com.artograd.api.services.system.ReferenceDataCache;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -11,14 +12,18 @@ import org.springframework.stereotype.Service;
 @Service
 public class TeamMateService implements ITeamMateService {
 
-  private final TeamMateRepository teamMateRepository;
+  private final ReferenceDataCache referenceDataCache;
 
   @Autowired
-  public TeamMateService(TeamMateRepository teamMateRepository) {
-    this.teamMateRepository = teamMateRepository;
+  public TeamMateService(ReferenceDataCache referenceDataCache) {
+    this.referenceDataCache = referenceDataCache;
   }
 
   public List<TeamMate> getActiveTeamMates() {
-    return teamMateRepository.findByActiveTrue();
+    return getVersionedActiveTeamMates().data();
+  }
+
+  public VersionedData<List<TeamMate>> getVersionedActiveTeamMates() {
+    return referenceDataCache.getActiveTeamMates();
   }
 }
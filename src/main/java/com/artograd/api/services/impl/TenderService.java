@@ -1,40 +1,80 @@
 package com.artograd.api.services.impl;
 
+import com.artograd.api.helpers.FacetedSearchHelper;
+import com.artograd.api.helpers.GeoSearchHelper;
+import com.artograd.api.helpers.KeysetPaginationHelper;
+import com.artograd.api.helpers.MapClusterHelper;
 import com.artograd.api.helpers.UserAttributeHelper;
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.FacetedPage;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.MapCluster;
+import com.artograd.api.model.NearbyItem;
+import com.artograd.api.model.Proposal;
 import com.artograd.api.model.Tender;
 import com.artograd.api.model.TenderSearchCriteria;
 import com.artograd.api.model.enums.TenderStatus;
 import com.artograd.api.model.enums.UserAttributeKey;
+import com.artograd.api.repositories.ProposalRepository;
 import com.artograd.api.repositories.TenderRepository;
 import com.artograd.api.services.ITenderService;
 import com.artograd.api.services.IUserService;
+import com.artograd.api.utils.LocationUtils;
+import com.artograd.api.utils.SearchTextUtils;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class TenderService implements ITenderService {
 
+  private static final String CARD_FIELDS = "card";
+  private static final String SORT_BY_RELEVANCE = "relevance";
+
+  /**
+   * The only field a search can be scrolled by: every search index ends with {@code (createdAt,
+   * _id)}, so other sort fields would be sorted in memory on every page.
+   */
+  private static final Set<String> SCROLL_SORT_FIELDS = Set.of("createdAt");
+
   @Autowired private TenderRepository tenderRepository;
 
+  @Autowired private ProposalRepository proposalRepository;
+
   @Autowired private IUserService userService;
 
   @Autowired private MongoTemplate mongoTemplate;
 
   @Autowired private UserAttributeHelper userAttributeHelper;
 
+  @Autowired private KeysetPaginationHelper keysetPaginationHelper;
+
+  @Autowired private FacetedSearchHelper facetedSearchHelper;
+
+  @Autowired private GeoSearchHelper geoSearchHelper;
+
+  @Autowired private MapClusterHelper mapClusterHelper;
+
   /**
    * Creates a new Tender.
    *
@@ -59,6 +99,24 @@ public class TenderService implements ITenderService {
     return tenderRepository.findById(id);
   }
 
+  /**
+   * Retrieves a tender by its ID together with its proposal count and, if asked for, its
+   * proposals.
+   *
+   * @param id The ID of the tender.
+   * @param includeProposals Whether the proposals themselves should be loaded.
+   * @return An Optional containing the found tender or empty if not found.
+   */
+  @Override
+  public Optional<Tender> getTender(String id, boolean includeProposals) {
+    return getTender(id)
+        .map(
+            tender -> {
+              attachProposals(List.of(tender), includeProposals);
+              return tender;
+            });
+  }
+
   /**
    * Updates an existing Tender.
    *
@@ -82,6 +140,7 @@ public class TenderService implements ITenderService {
   @Override
   public void deleteTender(String id) {
     tenderRepository.deleteById(id);
+    proposalRepository.deleteByTenderId(id);
   }
 
   /**
@@ -93,13 +152,118 @@ public class TenderService implements ITenderService {
   @Override
   public List<Tender> searchTenders(TenderSearchCriteria criteria) {
     Query query = buildSearchQuery(criteria);
-    final Pageable pageable =
-        PageRequest.of(
+    // The sort is already set by buildSearchQuery
+    final Pageable pageable = PageRequest.of(criteria.getPage(), criteria.getSize());
+    query.with(pageable);
+    if (CARD_FIELDS.equals(criteria.getFields())) {
+      applyCardProjection(query);
+    }
+    List<Tender> tenders = mongoTemplate.find(query, Tender.class);
+    attachProposals(tenders, criteria.isIncludeProposals());
+    return tenders;
+  }
+
+  /**
+   * Searches for tenders page by page, continuing after the cursor of the previous page
+   * instead of skipping the previous pages.
+   *
+   * @param criteria The search criteria; {@code page} is ignored in favour of {@code after} and
+   *     the full-text {@code text} search is not supported.
+   * @return The page and the cursor of the next one.
+   * @throws IllegalArgumentException if the cursor is malformed or relevance sort is requested.
+   */
+  @Override
+  public CursorPage<Tender> scrollTenders(TenderSearchCriteria criteria) {
+    if (SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      throw new IllegalArgumentException("Relevance sort is not supported when scrolling");
+    }
+    CursorPage<Tender> page =
+        keysetPaginationHelper.find(
+            Tender.class,
+            buildSearchCriteria(criteria),
+            criteria.getSortBy(),
+            SCROLL_SORT_FIELDS,
+            Sort.Direction.fromString(criteria.getSortOrder()),
+            criteria.getSize(),
+            criteria.getAfter(),
+            CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+    attachProposals(page.getItems(), criteria.isIncludeProposals());
+    return page;
+  }
+
+  /**
+   * Searches for a page of tenders together with the total and the number of tenders per status,
+   * category and location for the same search, all with a single aggregation.
+   *
+   * @param criteria The search criteria; relevance sort is not supported.
+   * @return The page, the total and the counts per value of each faceted field.
+   * @throws IllegalArgumentException if relevance sort is requested.
+   */
+  @Override
+  public FacetedPage<Tender> facetTenders(TenderSearchCriteria criteria) {
+    if (SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      throw new IllegalArgumentException("Relevance sort is not supported with facets");
+    }
+    Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
+    FacetedPage<Tender> page =
+        facetedSearchHelper.find(
+            Tender.class,
+            StringUtils.isNotBlank(criteria.getText())
+                ? TextCriteria.forDefaultLanguage().matching(criteria.getText())
+                : null,
+            buildCommonCriteria(criteria),
+            buildFacetFilters(criteria),
+            Sort.by(direction, criteria.getSortBy(), "id"),
             criteria.getPage(),
             criteria.getSize(),
-            Sort.by(Sort.Direction.fromString(criteria.getSortOrder()), criteria.getSortBy()));
-    query.with(pageable);
-    return mongoTemplate.find(query, Tender.class);
+            CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+    attachProposals(page.getItems(), criteria.isIncludeProposals());
+    return page;
+  }
+
+  /**
+   * Finds public tenders around a point, nearest first, or inside a bounding box.
+   *
+   * @param criteria The centre and radius or the bounding box and optional statuses.
+   * @return The tenders with their distance from the centre.
+   * @throws IllegalArgumentException if neither a valid centre nor a valid bounding box is given.
+   */
+  @Override
+  public List<NearbyItem<Tender>> findTendersNear(GeoSearchCriteria criteria) {
+    List<Criteria> filters = new ArrayList<>();
+    filters.add(Criteria.where("status").in(TenderStatus.publicStatuses()));
+    if (!CollectionUtils.isEmpty(criteria.getStatuses())) {
+      filters.add(Criteria.where("status").in(criteria.getStatuses()));
+    }
+    List<NearbyItem<Tender>> items =
+        geoSearchHelper.find(
+            Tender.class,
+            filters,
+            criteria,
+            CARD_FIELDS.equals(criteria.getFields()) ? this::applyCardProjection : null);
+    attachProposals(items.stream().map(NearbyItem::getItem).toList(), false);
+    return items;
+  }
+
+  /**
+   * Clusters the public tenders of a map view on a grid depending on the zoom level.
+   *
+   * @param criteria The bounding box, the zoom level and optional statuses.
+   * @return The clusters with their centroid, size and a few tender IDs.
+   * @throws IllegalArgumentException if the box is invalid or too large for the zoom level.
+   */
+  @Override
+  public List<MapCluster> clusterTenders(GeoSearchCriteria criteria) {
+    List<Criteria> filters = new ArrayList<>();
+    filters.add(Criteria.where("status").in(TenderStatus.publicStatuses()));
+    if (!CollectionUtils.isEmpty(criteria.getStatuses())) {
+      filters.add(Criteria.where("status").in(criteria.getStatuses()));
+    }
+    return mapClusterHelper.find(
+        Tender.class,
+        filters,
+        MapClusterHelper.cacheKey(Tender.class, criteria.getStatuses()),
+        criteria);
   }
 
   /**
@@ -130,49 +294,146 @@ public class TenderService implements ITenderService {
     return getTender(tenderId).map(tender -> tender.getOwnerId().equals(username)).orElse(false);
   }
 
+  /**
+   * Sets the proposal count of the tenders and, if asked for, their proposals, with a single query
+   * to the proposals collection for the whole list.
+   */
+  private void attachProposals(List<Tender> tenders, boolean includeProposals) {
+    if (tenders.isEmpty()) {
+      return;
+    }
+    List<String> tenderIds = tenders.stream().map(Tender::getId).toList();
+
+    if (includeProposals) {
+      Map<String, List<Proposal>> proposalsByTender =
+          proposalRepository.findByTenderIdInOrderByCreatedAtAsc(tenderIds).stream()
+              .collect(Collectors.groupingBy(Proposal::getTenderId));
+      tenders.forEach(
+          tender -> {
+            List<Proposal> proposals =
+                proposalsByTender.getOrDefault(tender.getId(), new ArrayList<>());
+            tender.setProposals(proposals);
+            tender.setProposalCount(proposals.size());
+          });
+      return;
+    }
+
+    Aggregation aggregation =
+        Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("tenderId").in(tenderIds)),
+            Aggregation.group("tenderId").count().as("count"));
+    Map<String, Long> countsByTender =
+        mongoTemplate
+            .aggregate(aggregation, Proposal.class, Document.class)
+            .getMappedResults()
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    result -> result.getString("_id"),
+                    result -> ((Number) result.get("count")).longValue()));
+    tenders.forEach(
+        tender -> tender.setProposalCount(countsByTender.getOrDefault(tender.getId(), 0L)));
+  }
+
+  /** Restricts the query to the fields shown on a tender card and the first file as its image. */
+  private void applyCardProjection(Query query) {
+    query
+        .fields()
+        .include(
+            "id",
+            "title",
+            "status",
+            "category",
+            "location.addressLine",
+            "locationLeafId",
+            "ownerId",
+            "ownerName",
+            "ownerPicture",
+            "organization",
+            "submissionStart",
+            "submissionEnd",
+            "votingEndDate",
+            "expectedDelivery",
+            "createdAt",
+            "modifiedAt")
+        .slice("files", 1);
+  }
+
   private Query buildSearchQuery(TenderSearchCriteria criteria) {
-    Query query = new Query();
+    Query query =
+        StringUtils.isNotBlank(criteria.getText())
+            ? TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(criteria.getText()))
+            : new Query();
+    List<Criteria> criteriaList = buildSearchCriteria(criteria);
+
+    if (!criteriaList.isEmpty()) {
+      Criteria combinedCriteria = new Criteria().andOperator(criteriaList.toArray(new Criteria[0]));
+      query.addCriteria(combinedCriteria);
+    }
+
+    if (query instanceof TextQuery textQuery && SORT_BY_RELEVANCE.equals(criteria.getSortBy())) {
+      textQuery.sortByScore();
+    } else {
+      Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
+      Sort sort = Sort.by(direction, criteria.getSortBy());
+      query.with(sort);
+    }
+
+    return query;
+  }
+
+  private List<Criteria> buildSearchCriteria(TenderSearchCriteria criteria) {
+    List<Criteria> criteriaList = buildCommonCriteria(criteria);
+    buildFacetFilters(criteria).values().stream()
+        .filter(Objects::nonNull)
+        .forEach(criteriaList::add);
+    return criteriaList;
+  }
+
+  /** Returns the filters that don't belong to a faceted field. */
+  private List<Criteria> buildCommonCriteria(TenderSearchCriteria criteria) {
     List<Criteria> criteriaList = new ArrayList<>();
 
     if (StringUtils.isNotBlank(criteria.getTitle())) {
-      criteriaList.add(Criteria.where("title").regex(criteria.getTitle(), "i"));
+      List<String> tokens = SearchTextUtils.queryTokens(criteria.getTitle());
+      if (!tokens.isEmpty()) {
+        criteriaList.add(Criteria.where("titleTokens").all(tokens));
+      }
     }
     if (StringUtils.isNotBlank(criteria.getOwnerId())) {
       criteriaList.add(Criteria.where("ownerId").is(criteria.getOwnerId()));
       criteriaList.add(
-          Criteria.where("status").nin(Arrays.asList(TenderStatus.DELETED.toString())));
+          Criteria.where("status").in(TenderStatus.namesExcept(TenderStatus.DELETED)));
     } else {
-      criteriaList.add(
-          Criteria.where("status")
-              .nin(
-                  Arrays.asList(
-                      TenderStatus.DRAFT.toString(),
-                      TenderStatus.CANCELLED.toString(),
-                      TenderStatus.DELETED.toString(),
-                      TenderStatus.CLOSED.toString())));
-    }
-    if (!CollectionUtils.isEmpty(criteria.getLocationLeafIds())) {
-      criteriaList.add(Criteria.where("locationLeafId").in(criteria.getLocationLeafIds()));
-    }
-    if (!CollectionUtils.isEmpty(criteria.getStatuses())) {
-      criteriaList.add(Criteria.where("status").in(criteria.getStatuses()));
+      criteriaList.add(Criteria.where("status").in(TenderStatus.publicStatuses()));
     }
 
-    if (!criteriaList.isEmpty()) {
-      Criteria combinedCriteria = new Criteria().andOperator(criteriaList.toArray(new Criteria[0]));
-      query.addCriteria(combinedCriteria);
-    }
-
-    Sort.Direction direction = Sort.Direction.fromString(criteria.getSortOrder());
-    Sort sort = Sort.by(direction, criteria.getSortBy());
-    query.with(sort);
+    return criteriaList;
+  }
 
-    return query;
+  /** Returns the filters on the faceted fields, which {@link #facetTenders} counts apart. */
+  private Map<String, Criteria> buildFacetFilters(TenderSearchCriteria criteria) {
+    Map<String, Criteria> facetFilters = new LinkedHashMap<>();
+    facetFilters.put(
+        "status",
+        CollectionUtils.isEmpty(criteria.getStatuses())
+            ? null
+            : Criteria.where("status").in(criteria.getStatuses()));
+    facetFilters.put("category", null);
+    facetFilters.put(
+        "locationLeafId",
+        CollectionUtils.isEmpty(criteria.getLocationLeafIds())
+            ? null
+            : Criteria.where("locationPath").in(criteria.getLocationLeafIds()));
+    return facetFilters;
   }
 
-  /** Enriches a tender with owner data and updates timestamps. */
+  /** Enriches a tender with owner data and search fields and updates timestamps. */
   private void enrichTenderWithOwnerDataAndTimestamps(Tender tender) {
     tender.setModifiedAt(new Date());
+    tender.setTitleTokens(SearchTextUtils.prefixes(tender.getTitle()));
+    tender.setLocationPath(LocationUtils.path(tender.getLocation(), tender.getLocationLeafId()));
+    tender.setGeoPoint(LocationUtils.point(tender.getLocation()));
 
     if (StringUtils.isNotBlank(tender.getOwnerId())) {
       userService
@@ -0,0 +1,122 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.City;
+import com.artograd.api.model.NearbyItem;
+import com.artograd.api.repositories.CitiesRepository;
+import com.artograd.api.utils.SpherePointIndex;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory spatial index of all cities for reverse geocoding. It is built at startup, so it ends
+ * up in the SnapStart snapshot, and rebuilt from the database on the first lookup after the
+ * refresh interval or when {@link #refresh()} is called. A single lookup rebuilds the index while
+ * the others keep using the previous one, which is also served while rebuilding fails; a failed
+ * rebuild is retried at most once per retry interval.
+ */
+@Service
+@Order(5)
+public class CityIndex implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(CityIndex.class);
+
+  @Value("${artograd.cities.index.refresh:PT1H}")
+  private Duration refreshInterval;
+
+  @Value("${artograd.cities.index.retry:PT1M}")
+  private Duration retryInterval;
+
+  @Autowired private CitiesRepository citiesRepository;
+
+  private volatile Snapshot snapshot;
+
+  private final AtomicLong lastRebuildAttempt = new AtomicLong();
+
+  @Override
+  public void run(ApplicationArguments args) {
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      // The first lookup builds the index instead
+      logger.warn("Could not build the city index at startup", e);
+    }
+  }
+
+  /**
+   * Finds the city nearest to the position.
+   *
+   * @param lat the latitude in degrees
+   * @param lng the longitude in degrees
+   * @return the nearest city with its distance in metres, or empty if there are no cities
+   */
+  public Optional<NearbyItem<City>> nearest(double lat, double lng) {
+    Snapshot current = current();
+    int nearest = current.index().nearest(lat, lng);
+    if (nearest < 0) {
+      return Optional.empty();
+    }
+    City city = current.cities().get(nearest);
+    return Optional.of(
+        new NearbyItem<>(
+            city, SpherePointIndex.distanceMetres(lat, lng, city.getLat(), city.getLng())));
+  }
+
+  /** Rebuilds the index from the cities in the database. */
+  public synchronized void refresh() {
+    List<City> cities = citiesRepository.findAll();
+    double[] latitudes = new double[cities.size()];
+    double[] longitudes = new double[cities.size()];
+    for (int i = 0; i < cities.size(); i++) {
+      latitudes[i] = cities.get(i).getLat();
+      longitudes[i] = cities.get(i).getLng();
+    }
+    snapshot =
+        new Snapshot(
+            List.copyOf(cities),
+            new SpherePointIndex(latitudes, longitudes),
+            System.currentTimeMillis());
+    logger.debug("Indexed {} cities", cities.size());
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      // Nothing to serve yet, so the lookup waits for the index and fails if it can't be built
+      synchronized (this) {
+        if (snapshot == null) {
+          refresh();
+        }
+        return snapshot;
+      }
+    }
+    long now = System.currentTimeMillis();
+    long last = lastRebuildAttempt.get();
+    if (current.builtAt() + refreshInterval.toMillis() <= now
+        && now - last >= retryInterval.toMillis()
+        && lastRebuildAttempt.compareAndSet(last, now)) {
+      try {
+        refresh();
+        return snapshot;
+      } catch (RuntimeException e) {
+        logger.warn(
+            "Could not rebuild the city index, still serving the one built at {}",
+            Instant.ofEpochMilli(current.builtAt()),
+            e);
+      }
+    }
+    return current;
+  }
+
+  private record Snapshot(List<City> cities, SpherePointIndex index, long builtAt) {}
+}
@@ -0,0 +1,94 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.helpers.GeoSearchHelper;
+import com.artograd.api.model.ArtObject;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.system.MigrationRecord;
+import com.artograd.api.utils.LocationUtils;
+import java.util.Date;
+import java.util.function.Function;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills the GeoJSON point of tenders and art objects that have a geo position but were created
+ * before the point was maintained on every write. Runs once at startup and only touches documents
+ * without a point, so it can safely be repeated.
+ */
+@Service
+@Order(4)
+public class GeoPointMigrationService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(GeoPointMigrationService.class);
+
+  static final String MIGRATION_ID = "geo-point";
+
+  private static final int BATCH_SIZE = 500;
+
+  @Value("${artograd.migrations.geo-point.enabled:true}")
+  private boolean enabled;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled || mongoTemplate.findById(MIGRATION_ID, MigrationRecord.class) != null) {
+      return;
+    }
+    long processed =
+        backfill(Tender.class, tender -> LocationUtils.point(tender.getLocation()))
+            + backfill(ArtObject.class, artObject -> LocationUtils.point(artObject.getLocation()));
+
+    MigrationRecord migrationRecord = new MigrationRecord();
+    migrationRecord.setId(MIGRATION_ID);
+    migrationRecord.setAppliedAt(new Date());
+    migrationRecord.setProcessed(processed);
+    mongoTemplate.save(migrationRecord);
+    logger.info("Filled geo points of {} documents", processed);
+  }
+
+  private <T> long backfill(Class<T> type, Function<T, GeoJsonPoint> point) {
+    long processed = 0;
+    BulkOperations bulk = null;
+
+    for (Document document :
+        mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(type))
+            .find(
+                new Document(GeoSearchHelper.GEO_POINT, new Document("$exists", false))
+                    .append("location.geoPosition", new Document("$exists", true)))
+            .projection(new Document("location.geoPosition", 1))) {
+      GeoJsonPoint geoPoint = point.apply(mongoTemplate.getConverter().read(type, document));
+      if (geoPoint == null) {
+        continue;
+      }
+      if (bulk == null) {
+        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+      }
+      bulk.updateOne(
+          Query.query(Criteria.where("_id").is(document.get("_id"))),
+          Update.update(GeoSearchHelper.GEO_POINT, geoPoint));
+      if (++processed % BATCH_SIZE == 0) {
+        bulk.execute();
+        bulk = null;
+      }
+    }
+    if (bulk != null) {
+      bulk.execute();
+    }
+    return processed;
+  }
+}
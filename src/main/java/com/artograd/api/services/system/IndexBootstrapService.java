@@ -0,0 +1,247 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.helpers.GeoSearchHelper;
+import com.artograd.api.model.ArtObject;
+import com.artograd.api.model.EmailWhitelistEntry;
+import com.artograd.api.model.ExpenseReport;
+import com.artograd.api.model.Proposal;
+import com.artograd.api.model.SocialMediaContact;
+import com.artograd.api.model.TeamMate;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.WorkUpdate;
+import com.artograd.api.model.enums.TenderStatus;
+import com.artograd.api.model.system.CollectionIndexReport;
+import com.artograd.api.model.system.IndexUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+/**
+ * Declares the indexes matching the query shapes the services and repositories issue and creates
+ * them at startup. Creating an index that already exists is a no-op, so this is cheap after the
+ * first run. Index keys go through the entity mapping, so they use the property names.
+ *
+ * <p>Tender searches list the statuses they match, so the public search can use indexes that are
+ * partial on the public statuses and skip drafts, deleted, cancelled and closed tenders, and the
+ * owner's search can use indexes that leave out deleted ones.
+ */
+@Service
+@Order(0)
+public class IndexBootstrapService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(IndexBootstrapService.class);
+
+  private static final List<Class<?>> INDEXED_TYPES =
+      List.of(
+          Tender.class,
+          Proposal.class,
+          ArtObject.class,
+          ExpenseReport.class,
+          WorkUpdate.class,
+          SocialMediaContact.class,
+          TeamMate.class,
+          EmailWhitelistEntry.class);
+
+  @Value("${artograd.indexes.bootstrap:true}")
+  private boolean bootstrap;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!bootstrap) {
+      return;
+    }
+    ensureTenderIndexes();
+    ensureProposalIndexes();
+    ensureArtObjectIndexes();
+    ensureReferenceIndexes();
+    logger.info("Ensured indexes of {} collections", INDEXED_TYPES.size());
+  }
+
+  /**
+   * Reports how often each index was used and how many queries scanned the whole collection since
+   * the database server started.
+   *
+   * @return one report per indexed collection
+   */
+  public List<CollectionIndexReport> getIndexUsage() {
+    List<CollectionIndexReport> reports = new ArrayList<>();
+    for (Class<?> type : INDEXED_TYPES) {
+      String collection = mongoTemplate.getCollectionName(type);
+      List<IndexUsage> indexes = new ArrayList<>();
+      for (Document stats :
+          mongoTemplate
+              .getCollection(collection)
+              .aggregate(List.of(new Document("$indexStats", new Document())))) {
+        Document accesses = stats.get("accesses", Document.class);
+        indexes.add(
+            new IndexUsage(
+                stats.getString("name"),
+                ((Number) accesses.get("ops")).longValue(),
+                accesses.getDate("since")));
+      }
+      reports.add(new CollectionIndexReport(collection, countCollectionScans(collection), indexes));
+    }
+    return reports;
+  }
+
+  private long countCollectionScans(String collection) {
+    Document stats =
+        mongoTemplate
+            .getCollection(collection)
+            .aggregate(
+                List.of(
+                    new Document(
+                        "$collStats", new Document("queryExecStats", new Document()))))
+            .first();
+    if (stats == null) {
+      return 0;
+    }
+    Document scans =
+        stats.getEmbedded(List.of("queryExecStats", "collectionScans"), Document.class);
+    return scans == null ? 0 : ((Number) scans.get("total")).longValue();
+  }
+
+  private void ensureTenderIndexes() {
+    IndexOperations indexOps = mongoTemplate.indexOps(Tender.class);
+    PartialIndexFilter listed =
+        PartialIndexFilter.of(Criteria.where("status").in(TenderStatus.publicStatuses()));
+    PartialIndexFilter notDeleted =
+        PartialIndexFilter.of(
+            Criteria.where("status").in(TenderStatus.namesExcept(TenderStatus.DELETED)));
+
+    // Public search: status in the public statuses, newest first, optionally by location or title
+    indexOps.ensureIndex(newestFirst(new Index()).named("public_createdAt").partial(listed));
+    indexOps.ensureIndex(
+        newestFirst(new Index().on("locationPath", Sort.Direction.ASC))
+            .named("public_locationPath_createdAt")
+            .partial(listed));
+    // Replaced by the location path, which also matches the upper levels of the hierarchy
+    dropIndexIfExists(indexOps, "public_locationLeafId_createdAt");
+    // Map search around a point or inside a bounding box
+    indexOps.ensureIndex(
+        new CompoundIndexDefinition(geoPoint()).named("public_geoPoint").partial(listed));
+    indexOps.ensureIndex(
+        newestFirst(new Index().on("titleTokens", Sort.Direction.ASC))
+            .named("public_titleTokens_createdAt")
+            .partial(listed));
+
+    // Owner's search; the non-partial (ownerId, status) index also serves the count by status
+    // and the profile update, which include deleted tenders
+    indexOps.ensureIndex(
+        newestFirst(new Index().on("ownerId", Sort.Direction.ASC))
+            .named("owner_createdAt")
+            .partial(notDeleted));
+    indexOps.ensureIndex(
+        new Index().on("ownerId", Sort.Direction.ASC).on("status", Sort.Direction.ASC));
+
+    ensureTextIndex(indexOps);
+  }
+
+  private void ensureProposalIndexes() {
+    IndexOperations indexOps = mongoTemplate.indexOps(Proposal.class);
+    indexOps.ensureIndex(
+        new Index()
+            .on("tenderId", Sort.Direction.ASC)
+            .on("createdAt", Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC));
+    indexOps.ensureIndex(
+        new Index()
+            .on("tenderId", Sort.Direction.ASC)
+            .on("likeCount", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC));
+    indexOps.ensureIndex(new Index().on("ownerId", Sort.Direction.ASC));
+  }
+
+  private void ensureArtObjectIndexes() {
+    IndexOperations indexOps = mongoTemplate.indexOps(ArtObject.class);
+    indexOps.ensureIndex(newestFirst(new Index()));
+    indexOps.ensureIndex(newestFirst(new Index().on("status", Sort.Direction.ASC)));
+    // Both branches of the owner-or-supplier $or need an index of their own
+    indexOps.ensureIndex(newestFirst(new Index().on("owner.id", Sort.Direction.ASC)));
+    indexOps.ensureIndex(newestFirst(new Index().on("supplier.id", Sort.Direction.ASC)));
+    indexOps.ensureIndex(newestFirst(new Index().on("titleTokens", Sort.Direction.ASC)));
+    indexOps.ensureIndex(newestFirst(new Index().on("locationPath", Sort.Direction.ASC)));
+    indexOps.ensureIndex(
+        new CompoundIndexDefinition(geoPoint().append("status", 1)).named("geoPoint_status"));
+    ensureTextIndex(indexOps);
+  }
+
+  private static void dropIndexIfExists(IndexOperations indexOps, String name) {
+    if (indexOps.getIndexInfo().stream().anyMatch(index -> name.equals(index.getName()))) {
+      indexOps.dropIndex(name);
+    }
+  }
+
+  /** Indexes of the repositories' derived and annotated queries. */
+  private void ensureReferenceIndexes() {
+    mongoTemplate
+        .indexOps(ExpenseReport.class)
+        .ensureIndex(
+            new Index().on("artObjectId", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+    mongoTemplate
+        .indexOps(WorkUpdate.class)
+        .ensureIndex(
+            new Index().on("artObjectId", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+    mongoTemplate
+        .indexOps(SocialMediaContact.class)
+        .ensureIndex(new Index().on("userId", Sort.Direction.ASC));
+    mongoTemplate
+        .indexOps(TeamMate.class)
+        .ensureIndex(new Index().on("active", Sort.Direction.ASC));
+
+    // Case-insensitive lookups use the same collation as EmailWhitelistRepository
+    Collation caseInsensitive =
+        Collation.of(Locale.ENGLISH).strength(Collation.ComparisonLevel.secondary());
+    IndexOperations whitelistOps = mongoTemplate.indexOps(EmailWhitelistEntry.class);
+    whitelistOps.ensureIndex(
+        new Index().on("email", Sort.Direction.ASC).collation(caseInsensitive));
+    whitelistOps.ensureIndex(
+        new Index().on("domain", Sort.Direction.ASC).collation(caseInsensitive));
+  }
+
+  /** Keys of a 2dsphere index on the GeoJSON point derived from the location. */
+  private static Document geoPoint() {
+    return new Document(GeoSearchHelper.GEO_POINT, "2dsphere");
+  }
+
+  /**
+   * Title prefixes serve type-ahead search and the text index serves full-text search. The text
+   * index uses no language: titles are written in English, Russian and Montenegrin (which MongoDB
+   * has no stemmer for) and the language of a document isn't known, so words are matched
+   * case- and diacritic-insensitively but without stemming.
+   */
+  private void ensureTextIndex(IndexOperations indexOps) {
+    indexOps.ensureIndex(
+        new TextIndexDefinitionBuilder()
+            .named("title_description_text")
+            .onField("title", 10F)
+            .onField("description", 2F)
+            .withDefaultLanguage("none")
+            .build());
+  }
+
+  /** Search sorts by creation date with {@code _id} as tie-breaker for keyset pagination. */
+  private Index newestFirst(Index index) {
+    return index.on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC);
+  }
+}
@@ -0,0 +1,151 @@
+package com.artograd.api.services.system;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived store of the Cognito signing keys keyed by {@code kid}.
+ *
+ * <p>The whole JWKS document is fetched at once and kept for {@code ttl}. Once an entry is older
+ * than {@code refreshAhead} it is still served, but a background refresh is started so warm
+ * instances never block on the JWKS endpoint. Lookups of an unknown {@code kid}, and lookups
+ * once the key set has expired, trigger a synchronous refetch at most once per {@code
+ * minRefetchInterval}. While the JWKS endpoint is failing or rate-limited, expired keys keep being
+ * served rather than rejecting every token.
+ */
+public class JwksKeyStore implements RSAKeyProvider {
+
+  private static final Logger logger = LoggerFactory.getLogger(JwksKeyStore.class);
+
+  private final UrlJwkProvider jwkProvider;
+  private final long ttlMillis;
+  private final long refreshAheadMillis;
+  private final long minRefetchIntervalMillis;
+
+  private volatile Map<String, RSAPublicKey> keys = Map.of();
+  private volatile long loadedAt;
+  private final AtomicLong lastFetchAttempt = new AtomicLong();
+  private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder refetches = new LongAdder();
+
+  /**
+   * Creates a key store reading the JWKS document published by the given issuer.
+   *
+   * @param issuer the token issuer, i.e. the Cognito user pool URL
+   * @param ttl how long a fetched key set may be used
+   * @param refreshAhead age after which a background refresh is started
+   * @param minRefetchInterval minimum delay between two fetches caused by unknown or expired keys
+   */
+  public JwksKeyStore(
+      String issuer, Duration ttl, Duration refreshAhead, Duration minRefetchInterval) {
+    this.jwkProvider = new UrlJwkProvider(issuer);
+    this.ttlMillis = ttl.toMillis();
+    this.refreshAheadMillis = Math.min(refreshAhead.toMillis(), ttlMillis);
+    this.minRefetchIntervalMillis = minRefetchInterval.toMillis();
+  }
+
+  @Override
+  public RSAPublicKey getPublicKeyById(String kid) {
+    long observedLoadedAt = loadedAt;
+    long age = System.currentTimeMillis() - observedLoadedAt;
+    RSAPublicKey key = keys.get(kid);
+
+    if (key != null && age < ttlMillis) {
+      cacheHits.increment();
+      if (age >= refreshAheadMillis) {
+        refreshInBackground(observedLoadedAt);
+      }
+      return key;
+    }
+
+    cacheMisses.increment();
+    if (isRefetchAllowed()) {
+      refresh(observedLoadedAt);
+      key = keys.get(kid);
+    }
+    if (key == null) {
+      logger.warn("No public key found for kid '{}'", kid);
+    } else if (loadedAt == observedLoadedAt) {
+      logger.debug("Serving expired public key for kid '{}'", kid);
+    }
+    return key;
+  }
+
+  @Override
+  public RSAPrivateKey getPrivateKey() {
+    return null;
+  }
+
+  @Override
+  public String getPrivateKeyId() {
+    return null;
+  }
+
+  /** Loads the key set eagerly so the first request does not pay for the JWKS fetch. */
+  public void preload() {
+    refresh(loadedAt);
+  }
+
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  public long getRefetches() {
+    return refetches.sum();
+  }
+
+  private boolean isRefetchAllowed() {
+    long now = System.currentTimeMillis();
+    long last = lastFetchAttempt.get();
+    return now - last >= minRefetchIntervalMillis && lastFetchAttempt.compareAndSet(last, now);
+  }
+
+  private void refreshInBackground(long observedLoadedAt) {
+    if (refreshInProgress.compareAndSet(false, true)) {
+      CompletableFuture.runAsync(() -> refresh(observedLoadedAt))
+          .whenComplete((ignored, e) -> refreshInProgress.set(false));
+    }
+  }
+
+  /**
+   * Fetches the key set unless another thread already replaced the one the caller observed.
+   */
+  private synchronized void refresh(long observedLoadedAt) {
+    if (loadedAt != observedLoadedAt) {
+      return;
+    }
+    lastFetchAttempt.set(System.currentTimeMillis());
+    refetches.increment();
+    try {
+      Map<String, RSAPublicKey> fetched = new ConcurrentHashMap<>();
+      for (Jwk jwk : jwkProvider.getAll()) {
+        if (jwk.getId() != null && "RSA".equals(jwk.getType())) {
+          fetched.put(jwk.getId(), (RSAPublicKey) jwk.getPublicKey());
+        }
+      }
+      keys = fetched;
+      loadedAt = System.currentTimeMillis();
+    } catch (Exception e) {
+      logger.error("Error fetching JWKS: {}", e.getMessage(), e);
+    }
+  }
+}
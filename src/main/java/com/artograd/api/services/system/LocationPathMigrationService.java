@@ -0,0 +1,93 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.ArtObject;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.system.MigrationRecord;
+import com.artograd.api.utils.LocationUtils;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills the location path of tenders and art objects created before it was maintained on every
+ * write. Runs once at startup and only touches documents without a path, so it can safely be
+ * repeated.
+ */
+@Service
+@Order(3)
+public class LocationPathMigrationService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(LocationPathMigrationService.class);
+
+  static final String MIGRATION_ID = "location-path";
+
+  private static final int BATCH_SIZE = 500;
+
+  @Value("${artograd.migrations.location-path.enabled:true}")
+  private boolean enabled;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled || mongoTemplate.findById(MIGRATION_ID, MigrationRecord.class) != null) {
+      return;
+    }
+    long processed =
+        backfill(
+                Tender.class,
+                tender -> LocationUtils.path(tender.getLocation(), tender.getLocationLeafId()))
+            + backfill(
+                ArtObject.class,
+                artObject ->
+                    LocationUtils.path(artObject.getLocation(), artObject.getLocationLeafId()));
+
+    MigrationRecord migrationRecord = new MigrationRecord();
+    migrationRecord.setId(MIGRATION_ID);
+    migrationRecord.setAppliedAt(new Date());
+    migrationRecord.setProcessed(processed);
+    mongoTemplate.save(migrationRecord);
+    logger.info("Filled location paths of {} documents", processed);
+  }
+
+  private <T> long backfill(Class<T> type, Function<T, List<String>> path) {
+    long processed = 0;
+    BulkOperations bulk = null;
+
+    for (Document document :
+        mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(type))
+            .find(new Document("locationPath", new Document("$exists", false)))
+            .projection(new Document("location.nestedLocation", 1).append("locationLeafId", 1))) {
+      if (bulk == null) {
+        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+      }
+      T entity = mongoTemplate.getConverter().read(type, document);
+      bulk.updateOne(
+          Query.query(Criteria.where("_id").is(document.get("_id"))),
+          Update.update("locationPath", path.apply(entity)));
+      if (++processed % BATCH_SIZE == 0) {
+        bulk.execute();
+        bulk = null;
+      }
+    }
+    if (bulk != null) {
+      bulk.execute();
+    }
+    return processed;
+  }
+}
@@ -0,0 +1,94 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.Proposal;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.system.MigrationRecord;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves proposals embedded in tender documents into the {@code proposals} collection. Runs once
+ * at startup; every step is idempotent, so a run interrupted half way or started concurrently by
+ * another instance is simply repeated.
+ */
+@Service
+@Order(1)
+public class ProposalMigrationService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProposalMigrationService.class);
+
+  static final String MIGRATION_ID = "embedded-proposals-to-collection";
+
+  @Value("${artograd.migrations.proposals.enabled:true}")
+  private boolean enabled;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    if (mongoTemplate.findById(MIGRATION_ID, MigrationRecord.class) == null) {
+      migrate();
+    }
+  }
+
+  /**
+   * Copies the embedded proposals of every tender into the proposals collection and then removes
+   * the embedded array from the tender.
+   */
+  void migrate() {
+    String tenderCollection = mongoTemplate.getCollectionName(Tender.class);
+    Document withProposals = new Document("proposals", new Document("$exists", true));
+    long processed = 0;
+
+    for (Document tender :
+        mongoTemplate
+            .getCollection(tenderCollection)
+            .find(withProposals)
+            .projection(new Document("proposals", 1))) {
+      Object tenderId = tender.get("_id");
+      List<Document> embedded = tender.getList("proposals", Document.class);
+      if (embedded != null) {
+        for (Document document : embedded) {
+          mongoTemplate.save(toProposal(document, tenderId.toString()));
+          processed++;
+        }
+      }
+      mongoTemplate
+          .getCollection(tenderCollection)
+          .updateOne(
+              new Document("_id", tenderId),
+              new Document("$unset", new Document("proposals", "")));
+    }
+
+    MigrationRecord migrationRecord = new MigrationRecord();
+    migrationRecord.setId(MIGRATION_ID);
+    migrationRecord.setAppliedAt(new Date());
+    migrationRecord.setProcessed(processed);
+    mongoTemplate.save(migrationRecord);
+    logger.info("Moved {} embedded proposals into their own collection", processed);
+  }
+
+  private Proposal toProposal(Document document, String tenderId) {
+    if (!document.containsKey("_id") && document.containsKey("id")) {
+      document.put("_id", document.get("id"));
+    }
+    Proposal proposal = mongoTemplate.getConverter().read(Proposal.class, document);
+    proposal.setTenderId(tenderId);
+    proposal.setLikeCount(
+        proposal.getLikedByUsers() == null ? 0 : proposal.getLikedByUsers().size());
+    return proposal;
+  }
+}
@@ -0,0 +1,115 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.City;
+import com.artograd.api.model.TeamMate;
+import com.artograd.api.model.system.VersionedData;
+import com.artograd.api.repositories.CitiesRepository;
+import com.artograd.api.repositories.TeamMateRepository;
+import com.artograd.api.utils.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process cache of reference data that rarely changes, such as cities and the team. Every
+ * entry carries a hash of its JSON as entity tag, so clients can revalidate with
+ * {@code If-None-Match} and get a 304 without the body.
+ *
+ * <p>The entries are loaded at startup, so they end up in the SnapStart snapshot, and reloaded on
+ * the first request after the refresh interval or after {@link #refresh()}. Concurrent reloads of
+ * the same entry share a single database query.
+ */
+@Service
+@Order(6)
+public class ReferenceDataCache implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+  private static final String CITIES = "cities";
+  private static final String TEAM = "team";
+
+  @Value("${artograd.reference-data.refresh:PT15M}")
+  private Duration refreshInterval;
+
+  @Value("${artograd.reference-data.load-timeout:PT5S}")
+  private Duration loadTimeout;
+
+  @Autowired private CitiesRepository citiesRepository;
+
+  @Autowired private TeamMateRepository teamMateRepository;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private final SingleFlight<String, Entry> singleFlight = new SingleFlight<>();
+
+  @Override
+  public void run(ApplicationArguments args) {
+    try {
+      getCities();
+      getActiveTeamMates();
+    } catch (RuntimeException e) {
+      // The first request loads the data instead
+      logger.warn("Could not load the reference data at startup", e);
+    }
+  }
+
+  public VersionedData<List<City>> getCities() {
+    return get(CITIES, citiesRepository::findAll);
+  }
+
+  public VersionedData<List<TeamMate>> getActiveTeamMates() {
+    return get(TEAM, teamMateRepository::findByActiveTrue);
+  }
+
+  /** Drops all entries, so the next request of each loads it from the database again. */
+  public void refresh() {
+    entries.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> VersionedData<T> get(String key, Supplier<T> loader) {
+    Entry entry = entries.get(key);
+    long now = System.currentTimeMillis();
+    if (entry == null || entry.loadedAt() + refreshInterval.toMillis() <= now) {
+      entry = singleFlight.execute(key, () -> load(key, loader), loadTimeout);
+    }
+    return (VersionedData<T>) entry.data();
+  }
+
+  private <T> Entry load(String key, Supplier<T> loader) {
+    T data = loader.get();
+    Entry entry = new Entry(new VersionedData<>(data, hash(data)), System.currentTimeMillis());
+    entries.put(key, entry);
+    logger.debug("Loaded reference data '{}' with ETag {}", key, entry.data().eTag());
+    return entry;
+  }
+
+  private String hash(Object data) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(data));
+      return HexFormat.of().formatHex(digest, 0, 16);
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Could not hash the reference data", e);
+    }
+  }
+
+  private record Entry(VersionedData<?> data, long loadedAt) {}
+}
@@ -0,0 +1,83 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.ArtObject;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.system.MigrationRecord;
+import com.artograd.api.utils.SearchTextUtils;
+import java.util.Date;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills the type-ahead title prefixes of tenders and art objects created before they were
+ * maintained on every write. Runs once at startup and only touches documents without prefixes, so
+ * it can safely be repeated.
+ */
+@Service
+@Order(2)
+public class TitleTokensMigrationService implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(TitleTokensMigrationService.class);
+
+  static final String MIGRATION_ID = "title-search-tokens";
+
+  private static final int BATCH_SIZE = 500;
+
+  @Value("${artograd.migrations.title-tokens.enabled:true}")
+  private boolean enabled;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled || mongoTemplate.findById(MIGRATION_ID, MigrationRecord.class) != null) {
+      return;
+    }
+    long processed = backfill(Tender.class) + backfill(ArtObject.class);
+
+    MigrationRecord migrationRecord = new MigrationRecord();
+    migrationRecord.setId(MIGRATION_ID);
+    migrationRecord.setAppliedAt(new Date());
+    migrationRecord.setProcessed(processed);
+    mongoTemplate.save(migrationRecord);
+    logger.info("Filled title search tokens of {} documents", processed);
+  }
+
+  private long backfill(Class<?> type) {
+    long processed = 0;
+    BulkOperations bulk = null;
+
+    for (Document document :
+        mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(type))
+            .find(new Document("titleTokens", new Document("$exists", false)))
+            .projection(new Document("title", 1))) {
+      if (bulk == null) {
+        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+      }
+      bulk.updateOne(
+          Query.query(Criteria.where("_id").is(document.get("_id"))),
+          Update.update("titleTokens", SearchTextUtils.prefixes(document.getString("title"))));
+      if (++processed % BATCH_SIZE == 0) {
+        bulk.execute();
+        bulk = null;
+      }
+    }
+    if (bulk != null) {
+      bulk.execute();
+    }
+    return processed;
+  }
+}
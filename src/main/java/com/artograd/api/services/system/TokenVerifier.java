@@ -0,0 +1,116 @@
+package com.artograd.api.services.system;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Verifies Cognito ID tokens with a verifier that is built once per instance and backed by a
+ * cached {@link JwksKeyStore}, so warm requests don't refetch keys or rebuild the algorithm.
+ */
+@Service
+public class TokenVerifier {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenVerifier.class);
+
+  @Value("${aws.cognito.userPoolId}")
+  private String userPoolId;
+
+  @Value("${aws.cognito.jwks.ttl:PT12H}")
+  private Duration jwksTtl;
+
+  @Value("${aws.cognito.jwks.refresh-ahead:PT11H}")
+  private Duration jwksRefreshAhead;
+
+  @Value("${aws.cognito.jwks.min-refetch-interval:PT1M}")
+  private Duration jwksMinRefetchInterval;
+
+  @Value("${aws.cognito.jwks.preload:true}")
+  private boolean preloadKeys;
+
+  private JwksKeyStore keyStore;
+
+  private JWTVerifier verifier;
+
+  private final LongAdder verifications = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder verificationNanos = new LongAdder();
+
+  /** Builds the key store and the verifier once for the lifetime of the instance. */
+  @PostConstruct
+  public void init() {
+    String issuer = getCognitoIssuer(userPoolId);
+    keyStore = new JwksKeyStore(issuer, jwksTtl, jwksRefreshAhead, jwksMinRefetchInterval);
+    verifier = JWT.require(Algorithm.RSA256(keyStore)).withIssuer(issuer).build();
+    if (preloadKeys) {
+      keyStore.preload();
+    }
+  }
+
+  /**
+   * Verifies the signature and the standard claims of the token.
+   *
+   * @param token the raw JWT
+   * @return the decoded token
+   * @throws com.auth0.jwt.exceptions.JWTVerificationException if the token is invalid
+   */
+  public DecodedJWT verify(String token) {
+    long start = System.nanoTime();
+    try {
+      return verifier.verify(token);
+    } catch (RuntimeException e) {
+      failures.increment();
+      throw e;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      verifications.increment();
+      verificationNanos.add(elapsed);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Token verified in {} us", elapsed / 1_000);
+      }
+    }
+  }
+
+  public long getVerifications() {
+    return verifications.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * Returns the average verification latency in microseconds.
+   *
+   * @return the average latency or 0 if nothing was verified yet
+   */
+  public long getAverageVerificationMicros() {
+    long count = verifications.sum();
+    return count == 0 ? 0 : verificationNanos.sum() / count / 1_000;
+  }
+
+  public long getKeyCacheHits() {
+    return keyStore.getCacheHits();
+  }
+
+  public long getKeyCacheMisses() {
+    return keyStore.getCacheMisses();
+  }
+
+  public long getKeyRefetches() {
+    return keyStore.getRefetches();
+  }
+
+  private String getCognitoIssuer(String userPoolId) {
+    String region = userPoolId.substring(0, userPoolId.indexOf("_"));
+    return String.format("https://cognito-idp.%s.amazonaws.com/%s", region, userPoolId);
+  }
+}
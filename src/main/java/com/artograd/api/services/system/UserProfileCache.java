@@ -0,0 +1,118 @@
+package com.artograd.api.services.system;
+
+import com.artograd.api.model.User;
+import com.artograd.api.utils.ExpiringLruCache;
+import com.artograd.api.utils.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-through cache of Cognito user profiles. Unknown users are cached for a shorter time, and
+ * entries are dropped explicitly whenever the profile is changed through this application.
+ * Concurrent misses for the same username share a single Cognito lookup. A lookup that was
+ * overtaken by an invalidation of the user is returned but not cached, so it can't bring the stale
+ * profile back.
+ */
+@Service
+public class UserProfileCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserProfileCache.class);
+
+  @Value("${aws.cognito.user-cache.max-size:2000}")
+  private int maxSize;
+
+  @Value("${aws.cognito.user-cache.ttl:PT5M}")
+  private Duration ttl;
+
+  @Value("${aws.cognito.user-cache.negative-ttl:PT30S}")
+  private Duration negativeTtl;
+
+  @Value("${aws.cognito.user-cache.coalesce-timeout:PT5S}")
+  private Duration coalesceTimeout;
+
+  private ExpiringLruCache<String, User> cache;
+
+  private final SingleFlight<String, User> singleFlight = new SingleFlight<>();
+
+  /** Invalidation count per username; it only holds users whose profile was changed. */
+  private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    cache = new ExpiringLruCache<>(maxSize);
+  }
+
+  /**
+   * Returns the cached user or loads it with the given loader on a miss.
+   *
+   * @param username the username
+   * @param loader loads the user; returns {@code null} when the user is known not to exist and
+   *     throws when the lookup failed, in which case nothing is cached
+   * @return the user or empty if the user does not exist or could not be loaded
+   */
+  public Optional<User> get(String username, Function<String, User> loader) {
+    Optional<User> cached = cache.get(username);
+    if (cached != null) {
+      return cached;
+    }
+    User user = singleFlight.execute(username, () -> load(username, loader), coalesceTimeout);
+    return Optional.ofNullable(user);
+  }
+
+  private User load(String username, Function<String, User> loader) {
+    long generation = generations.getOrDefault(username, 0L);
+    User user = loader.apply(username);
+    // The check and the put are atomic with respect to invalidate, which bumps under the cache lock
+    synchronized (cache) {
+      if (generations.getOrDefault(username, 0L) == generation) {
+        cache.put(username, user, user == null ? negativeTtl : ttl);
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "User cache miss for '{}' (hits={}, misses={}, evictions={}, coalesced={})",
+          username, getHits(), getMisses(), getEvictions(), getCoalesced());
+    }
+    return user;
+  }
+
+  /**
+   * Drops the cached user and keeps lookups that are already running from caching it again.
+   *
+   * @param username the username
+   */
+  public void invalidate(String username) {
+    synchronized (cache) {
+      generations.merge(username, 1L, Long::sum);
+      cache.invalidate(username);
+    }
+  }
+
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  public long getEvictions() {
+    return cache.getEvictions();
+  }
+
+  public long getCoalesced() {
+    return singleFlight.getCoalesced();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+}
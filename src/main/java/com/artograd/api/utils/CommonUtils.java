@@ -1,26 +1,31 @@
 package com.artograd.api.utils;
 
+import com.artograd.api.model.system.VersionedData;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
 import lombok.experimental.UtilityClass;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 
 @UtilityClass
 public class CommonUtils {
 
   /**
-   * Adds a cache control header to the response entity.
+   * Creates a response with the data, its entity tag and a cache control header. A GET request
+   * whose {@code If-None-Match} header matches the entity tag is answered with 304 Not Modified
+   * and no body. The response is also marked must-revalidate, so once the max-age has passed
+   * clients and shared caches check the entity tag before reusing it.
    *
-   * @param result  the object to be returned in the response body
-   * @param seconds the number of seconds to set in the cache control header
-   * @return a ResponseEntity with the cache control header and the given result as the response
-   *         body
+   * @param data the data and its entity tag
+   * @param seconds the number of seconds clients may use the response without revalidating it
+   * @return a ResponseEntity with the entity tag, the cache control header and the data as body
    */
-  public static ResponseEntity<?> addCacheHeader(Object result, int seconds) {
-    HttpHeaders headers = new HttpHeaders();
-    headers.setCacheControl("max-age=" + seconds);
-
-    return ResponseEntity.ok().headers(headers).body(result);
+  public static <T> ResponseEntity<T> addCacheHeaders(VersionedData<T> data, int seconds) {
+    return ResponseEntity.ok()
+        .eTag(data.eTag())
+        .cacheControl(
+            CacheControl.maxAge(seconds, TimeUnit.SECONDS).cachePublic().mustRevalidate())
+        .body(data.data());
   }
 
   /**
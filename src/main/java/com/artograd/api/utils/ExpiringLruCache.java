@@ -0,0 +1,106 @@
+package com.artograd.api.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small thread-safe LRU cache with a per-entry time to live.
+ *
+ * <p>Absent values can be cached as well ("negative caching"), so {@link #get(Object)} returns
+ * {@code null} when the key is not cached at all and an empty {@link Optional} when the cached
+ * answer is "does not exist".
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ExpiringLruCache<K, V> {
+
+  private final int maxSize;
+  private final Map<K, Entry<V>> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache holding at most {@code maxSize} entries.
+   *
+   * @param maxSize the maximum number of entries before the least recently used one is evicted
+   */
+  public ExpiringLruCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            boolean evict = size() > ExpiringLruCache.this.maxSize;
+            if (evict) {
+              evictions.increment();
+            }
+            return evict;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached value of the key.
+   *
+   * @param key the key
+   * @return {@code null} on a miss, otherwise the cached value which is empty for negative entries
+   */
+  public synchronized Optional<V> get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(key);
+      evictions.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return Optional.ofNullable(entry.value());
+  }
+
+  /**
+   * Caches the value of the key; a {@code null} value is cached as a negative entry.
+   *
+   * @param key the key
+   * @param value the value or {@code null}
+   * @param ttl how long the entry stays valid
+   */
+  public synchronized void put(K key, V value, Duration ttl) {
+    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttl.toMillis()));
+  }
+
+  public synchronized void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  private record Entry<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,80 @@
+package com.artograd.api.utils;
+
+import com.artograd.api.model.GeoPosition;
+import com.artograd.api.model.Location;
+import com.artograd.api.model.NestedLocation;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+/**
+ * Builds the location fields stored with tenders and art objects for search: the path of IDs of
+ * every level of their location hierarchy, so a search for a country, a municipality or a
+ * settlement is a single {@code $in} on one indexed array, and the GeoJSON point of their geo
+ * position for spatial queries.
+ */
+@UtilityClass
+public class LocationUtils {
+
+  /**
+   * Returns the IDs of the nested location from the top level down, followed by the leaf ID if
+   * the nested location doesn't end with it.
+   *
+   * @param location the location, may be {@code null}
+   * @param locationLeafId the ID of the most specific location, may be {@code null}
+   * @return the distinct IDs from the top level to the leaf
+   */
+  public static List<String> path(Location location, String locationLeafId) {
+    Set<String> path = new LinkedHashSet<>();
+    NestedLocation level = location == null ? null : location.getNestedLocation();
+    while (level != null) {
+      if (StringUtils.isNotBlank(level.getId())) {
+        path.add(level.getId());
+      }
+      level = level.getChild();
+    }
+    if (StringUtils.isNotBlank(locationLeafId)) {
+      path.add(locationLeafId);
+    }
+    return new ArrayList<>(path);
+  }
+
+  /**
+   * Returns the geo position of the location as a GeoJSON point.
+   *
+   * @param location the location, may be {@code null}
+   * @return the point or {@code null} if the location has no geo position or one out of range,
+   *     which the 2dsphere index would reject; the default {@code 0, 0} of an unset position
+   *     counts as none
+   */
+  public static GeoJsonPoint point(Location location) {
+    GeoPosition position = location == null ? null : location.getGeoPosition();
+    if (position == null
+        || (position.getLatitude() == 0 && position.getLongitude() == 0)
+        || !isInRange(position.getLatitude(), position.getLongitude())) {
+      return null;
+    }
+    return new GeoJsonPoint(position.getLongitude(), position.getLatitude());
+  }
+
+  /**
+   * Checks that the position is a valid latitude and longitude.
+   *
+   * @param lat the latitude
+   * @param lng the longitude
+   * @throws IllegalArgumentException if either is out of range
+   */
+  public static void checkPosition(double lat, double lng) {
+    if (!isInRange(lat, lng)) {
+      throw new IllegalArgumentException("Latitude or longitude out of range");
+    }
+  }
+
+  private static boolean isInRange(double lat, double lng) {
+    return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+  }
+}
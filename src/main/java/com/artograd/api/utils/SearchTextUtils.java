@@ -0,0 +1,74 @@
+package com.artograd.api.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Builds the word prefixes ("edge n-grams") stored with tenders and art objects for type-ahead
+ * title search. Text is lower-cased and stripped of diacritics, so accented and plain spellings
+ * match, and Latin and Cyrillic words are handled the same way.
+ */
+@UtilityClass
+public class SearchTextUtils {
+
+  static final int MIN_PREFIX_LENGTH = 2;
+  static final int MAX_PREFIX_LENGTH = 15;
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /**
+   * Returns the prefixes of every word of the text, from {@value #MIN_PREFIX_LENGTH} up to
+   * {@value #MAX_PREFIX_LENGTH} characters. Shorter words are kept whole.
+   *
+   * @param text the text to index, may be {@code null}
+   * @return the distinct prefixes in order of appearance
+   */
+  public static List<String> prefixes(String text) {
+    Set<String> prefixes = new LinkedHashSet<>();
+    for (String word : words(text)) {
+      if (word.length() < MIN_PREFIX_LENGTH) {
+        prefixes.add(word);
+        continue;
+      }
+      int maxLength = Math.min(word.length(), MAX_PREFIX_LENGTH);
+      for (int length = MIN_PREFIX_LENGTH; length <= maxLength; length++) {
+        prefixes.add(word.substring(0, length));
+      }
+    }
+    return new ArrayList<>(prefixes);
+  }
+
+  /**
+   * Returns the tokens to look up for a type-ahead query: every word of the query, cut to the
+   * longest stored prefix, must match one of the stored prefixes.
+   *
+   * @param query the text typed by the user
+   * @return the distinct tokens
+   */
+  public static List<String> queryTokens(String query) {
+    return words(query).stream()
+        .map(word -> word.substring(0, Math.min(word.length(), MAX_PREFIX_LENGTH)))
+        .distinct()
+        .toList();
+  }
+
+  private static List<String> words(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    String folded =
+        MARKS
+            .matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+            .replaceAll("")
+            .replace('\u0111', 'd'); // d with stroke has no decomposition
+    return Arrays.stream(WORD_SEPARATOR.split(folded)).filter(word -> !word.isEmpty()).toList();
+  }
+}
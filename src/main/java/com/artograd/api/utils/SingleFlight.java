@@ -0,0 +1,86 @@
+package com.artograd.api.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader, every caller
+ * arriving while it is in flight waits for the same result instead of starting its own call.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+
+  /**
+   * Runs the loader for the key unless a call for the same key is already in flight.
+   *
+   * @param key the key identifying the call
+   * @param loader the call to run; may return {@code null}
+   * @param timeout how long a coalesced caller waits for the in-flight call
+   * @return the value produced by the loader
+   * @throws IllegalStateException if a coalesced caller timed out or was interrupted
+   */
+  public V execute(K key, Supplier<V> loader, Duration timeout) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      coalesced.increment();
+      return await(key, existing, timeout);
+    }
+
+    executions.increment();
+    try {
+      V value = loader.get();
+      created.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      created.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, created);
+    }
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  private V await(K key, CompletableFuture<V> future, Duration timeout) {
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      timeouts.increment();
+      throw new IllegalStateException("Timed out waiting for in-flight call for " + key, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for in-flight call for " + key, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
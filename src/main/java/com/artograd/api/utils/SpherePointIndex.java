@@ -0,0 +1,180 @@
+package com.artograd.api.utils;
+
+/**
+ * Immutable k-d tree answering "which point is nearest" for points on the Earth's surface.
+ *
+ * <p>Every point is stored as a unit vector in three dimensions, where the straight-line distance
+ * grows with the great-circle distance, so the nearest point is exact anywhere on the globe and no
+ * longitude wrap-around or polar special case is needed. The tree is kept implicitly in primitive
+ * arrays: the median of each range is its root, the lower half its left and the upper half its
+ * right subtree. A lookup visits {@code O(log n)} nodes on average.
+ */
+public class SpherePointIndex {
+
+  /** Mean radius of the Earth in metres. */
+  public static final double EARTH_RADIUS_METRES = 6_371_008.8;
+
+  private static final int DIMENSIONS = 3;
+
+  /** Coordinates of the points in tree order, three per point. */
+  private final double[] coordinates;
+
+  /** Position of each point of the tree order in the input arrays. */
+  private final int[] ids;
+
+  /**
+   * Builds the tree.
+   *
+   * @param latitudes the latitudes of the points in degrees
+   * @param longitudes the longitudes of the points in degrees, in the same order
+   */
+  public SpherePointIndex(double[] latitudes, double[] longitudes) {
+    if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Latitudes and longitudes differ in length");
+    }
+    int size = latitudes.length;
+    coordinates = new double[size * DIMENSIONS];
+    ids = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i;
+      toVector(latitudes[i], longitudes[i], coordinates, i * DIMENSIONS);
+    }
+    build(0, size, 0);
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Finds the point nearest to the position.
+   *
+   * @param lat the latitude in degrees
+   * @param lng the longitude in degrees
+   * @return the position of the nearest point in the arrays the tree was built from, or
+   *     {@code -1} if the tree is empty
+   */
+  public int nearest(double lat, double lng) {
+    if (ids.length == 0) {
+      return -1;
+    }
+    double[] target = new double[DIMENSIONS];
+    toVector(lat, lng, target, 0);
+    Nearest nearest = new Nearest();
+    search(target, 0, ids.length, 0, nearest);
+    return ids[nearest.node];
+  }
+
+  /**
+   * Returns the great-circle distance between two positions.
+   *
+   * @return the distance in metres
+   */
+  public static double distanceMetres(double lat1, double lng1, double lat2, double lng2) {
+    double[] a = new double[DIMENSIONS];
+    double[] b = new double[DIMENSIONS];
+    toVector(lat1, lng1, a, 0);
+    toVector(lat2, lng2, b, 0);
+    double chord = Math.sqrt(squaredDistance(a, b, 0));
+    return 2 * EARTH_RADIUS_METRES * Math.asin(Math.min(1, chord / 2));
+  }
+
+  private void build(int from, int to, int axis) {
+    if (to - from <= 1) {
+      return;
+    }
+    int median = (from + to) >>> 1;
+    select(from, to - 1, median, axis);
+    int next = (axis + 1) % DIMENSIONS;
+    build(from, median, next);
+    build(median + 1, to, next);
+  }
+
+  /** Quickselect: moves the k-th smallest point of the range on the axis to position k. */
+  private void select(int left, int right, int k, int axis) {
+    while (left < right) {
+      double pivot = coordinate((left + right) >>> 1, axis);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (coordinate(i, axis) < pivot) {
+          i++;
+        }
+        while (coordinate(j, axis) > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void search(double[] target, int from, int to, int axis, Nearest nearest) {
+    if (from >= to) {
+      return;
+    }
+    int median = (from + to) >>> 1;
+    double distance = squaredDistance(target, coordinates, median * DIMENSIONS);
+    if (distance < nearest.squaredDistance) {
+      nearest.squaredDistance = distance;
+      nearest.node = median;
+    }
+
+    double offset = target[axis] - coordinate(median, axis);
+    int next = (axis + 1) % DIMENSIONS;
+    if (offset < 0) {
+      search(target, from, median, next, nearest);
+      if (offset * offset < nearest.squaredDistance) {
+        search(target, median + 1, to, next, nearest);
+      }
+    } else {
+      search(target, median + 1, to, next, nearest);
+      if (offset * offset < nearest.squaredDistance) {
+        search(target, from, median, next, nearest);
+      }
+    }
+  }
+
+  private double coordinate(int node, int axis) {
+    return coordinates[node * DIMENSIONS + axis];
+  }
+
+  private void swap(int a, int b) {
+    for (int axis = 0; axis < DIMENSIONS; axis++) {
+      double coordinate = coordinates[a * DIMENSIONS + axis];
+      coordinates[a * DIMENSIONS + axis] = coordinates[b * DIMENSIONS + axis];
+      coordinates[b * DIMENSIONS + axis] = coordinate;
+    }
+    int id = ids[a];
+    ids[a] = ids[b];
+    ids[b] = id;
+  }
+
+  private static void toVector(double lat, double lng, double[] vector, int offset) {
+    double phi = Math.toRadians(lat);
+    double lambda = Math.toRadians(lng);
+    vector[offset] = Math.cos(phi) * Math.cos(lambda);
+    vector[offset + 1] = Math.cos(phi) * Math.sin(lambda);
+    vector[offset + 2] = Math.sin(phi);
+  }
+
+  private static double squaredDistance(double[] target, double[] vectors, int offset) {
+    double dx = target[0] - vectors[offset];
+    double dy = target[1] - vectors[offset + 1];
+    double dz = target[2] - vectors[offset + 2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private static final class Nearest {
+    private int node = -1;
+    private double squaredDistance = Double.POSITIVE_INFINITY;
+  }
+}
@@ -4,16 +4,23 @@ package com.artograd.api.tests;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.artograd.api.model.City;
+import com.artograd.api.services.ICitiesService;
 import com.artograd.api.taf.ITestService;
+import java.util.List;
+import java.util.Locale;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -29,6 +36,8 @@ class TestCities {
 
   @Autowired private ITestService testService;
 
+  @Autowired private ICitiesService citiesService;
+
   /** Test that cities are returned with authorization token. */
   @Test
   void testCitiesEndpointAsOfficial() throws Exception {
@@ -72,4 +81,87 @@ class TestCities {
                 .contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().is(HttpStatus.UNAUTHORIZED.value()));
   }
+
+  /** Test that the nearest city of a city's own position is that city. */
+  @Test
+  void testNearestCity() throws Exception {
+    City city = citiesService.getAllCities().get(0);
+    mockMvc
+        .perform(
+            get("/cities/nearest")
+                .param("lat", String.valueOf(city.getLat()))
+                .param("lng", String.valueOf(city.getLng()))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.item.id").value(city.getId()))
+        .andExpect(jsonPath("$.distance").value(0.0));
+  }
+
+  /** Test that a position out of range is rejected. */
+  @Test
+  void testNearestCityOutOfRange() throws Exception {
+    mockMvc
+        .perform(
+            get("/cities/nearest")
+                .param("lat", "91")
+                .param("lng", "19")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  /** Test that anonymous callers get the nearest city of each posted position, in order. */
+  @Test
+  void testNearestCitiesAsAnonymous() throws Exception {
+    List<City> cities = citiesService.getAllCities();
+    City first = cities.get(0);
+    City last = cities.get(cities.size() - 1);
+    String positions =
+        String.format(
+            Locale.ROOT,
+            "[{\"latitude\": %s, \"longitude\": %s}, {\"latitude\": %s, \"longitude\": %s}]",
+            first.getLat(),
+            first.getLng(),
+            last.getLat(),
+            last.getLng());
+
+    mockMvc
+        .perform(
+            post("/cities/nearest").contentType(MediaType.APPLICATION_JSON).content(positions))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].item.id").value(first.getId()))
+        .andExpect(jsonPath("$[1].item.id").value(last.getId()));
+  }
+
+  /** Test that a batch with a position out of range is rejected. */
+  @Test
+  void testNearestCitiesOutOfRange() throws Exception {
+    mockMvc
+        .perform(
+            post("/cities/nearest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"latitude\": 91, \"longitude\": 19}]"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /** Test that a request revalidating the cities with their ETag gets 304 Not Modified. */
+  @Test
+  void testCitiesNotModified() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/cities").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get("/cities")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+  }
 }
@@ -0,0 +1,62 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.artograd.api.model.City;
+import com.artograd.api.repositories.CitiesRepository;
+import com.artograd.api.services.system.CityIndex;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Checks how the city index behaves when the database can't be read. */
+@ExtendWith(MockitoExtension.class)
+class TestCityIndex {
+
+  @Mock private CitiesRepository citiesRepository;
+
+  @InjectMocks private CityIndex cityIndex;
+
+  @BeforeEach
+  void setUp() {
+    // Every lookup finds the index expired, but a failed rebuild is only retried after an hour
+    ReflectionTestUtils.setField(cityIndex, "refreshInterval", Duration.ZERO);
+    ReflectionTestUtils.setField(cityIndex, "retryInterval", Duration.ofHours(1));
+  }
+
+  @Test
+  void servesThePreviousIndexWhileTheRebuildFails() {
+    City podgorica = new City();
+    podgorica.setName("Podgorica");
+    podgorica.setLat(42.44);
+    podgorica.setLng(19.26);
+    when(citiesRepository.findAll())
+        .thenReturn(List.of(podgorica))
+        .thenThrow(new DataAccessResourceFailureException("Database is down"));
+    cityIndex.refresh();
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals("Podgorica", cityIndex.nearest(42.4, 19.2).orElseThrow().getItem().getName());
+    }
+    verify(citiesRepository, times(2)).findAll();
+  }
+
+  @Test
+  void failsWhenThereIsNoIndexToServe() {
+    when(citiesRepository.findAll())
+        .thenThrow(new DataAccessResourceFailureException("Database is down"));
+
+    assertThrows(DataAccessResourceFailureException.class, () -> cityIndex.nearest(42.4, 19.2));
+  }
+}
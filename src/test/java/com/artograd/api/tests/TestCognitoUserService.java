@@ -0,0 +1,108 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.artograd.api.model.User;
+import com.artograd.api.services.impl.CognitoUserService;
+import com.artograd.api.services.system.UserProfileCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+/** Checks the batch user lookup against a mocked Cognito client and a pass-through cache. */
+@ExtendWith(MockitoExtension.class)
+class TestCognitoUserService {
+
+  private static final int PARALLELISM = 3;
+
+  @Mock private CognitoIdentityProviderClient cognitoClient;
+
+  @Mock private UserProfileCache userProfileCache;
+
+  @InjectMocks private CognitoUserService userService;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(userService, "userPoolId", "pool");
+    ReflectionTestUtils.setField(userService, "batchParallelism", PARALLELISM);
+    when(userProfileCache.get(anyString(), any()))
+        .thenAnswer(
+            invocation ->
+                Optional.ofNullable(
+                    invocation
+                        .<Function<String, User>>getArgument(1)
+                        .apply(invocation.getArgument(0))));
+    when(cognitoClient.adminListGroupsForUser(any(AdminListGroupsForUserRequest.class)))
+        .thenReturn(AdminListGroupsForUserResponse.builder().groups(List.of()).build());
+    when(cognitoClient.adminGetUser(any(AdminGetUserRequest.class)))
+        .thenAnswer(invocation -> getUser(invocation.getArgument(0)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    userService.shutdown();
+  }
+
+  @Test
+  void batchLookupReturnsKnownUsersWithBoundedParallelism() {
+    List<String> usernames = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      usernames.add("user" + i);
+    }
+    usernames.add("user0");
+    usernames.add("unknown");
+
+    Map<String, User> users = userService.getUsersByUsernames(usernames);
+
+    assertEquals(12, users.size());
+    assertEquals("user0", List.copyOf(users.keySet()).get(0));
+    assertEquals("user11", users.get("user11").getAttributes().get(0).getValue());
+    assertTrue(maxInFlight.get() <= PARALLELISM, "Lookups in flight: " + maxInFlight.get());
+    verify(cognitoClient, times(13)).adminGetUser(any(AdminGetUserRequest.class));
+  }
+
+  private AdminGetUserResponse getUser(AdminGetUserRequest request) throws InterruptedException {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(20);
+      if (request.username().equals("unknown")) {
+        throw UserNotFoundException.builder().message("User does not exist.").build();
+      }
+      return AdminGetUserResponse.builder()
+          .username(request.username())
+          .userAttributes(
+              AttributeType.builder().name("cognito:username").value(request.username()).build())
+          .build();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+}
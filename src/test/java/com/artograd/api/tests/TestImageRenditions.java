@@ -0,0 +1,113 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.artograd.api.helpers.ImageRenditionHelper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    classes = ImageRenditionHelper.class,
+    properties = "artograd.images.rendition-widths=640,320,1280")
+class TestImageRenditions {
+
+  @Autowired private ImageRenditionHelper imageRenditionHelper;
+
+  /** Test that a rendition is created for each width, narrowest first, keeping the aspect. */
+  @Test
+  void testRenditionWidths() throws IOException {
+    BufferedImage image = new BufferedImage(4000, 2000, BufferedImage.TYPE_INT_ARGB);
+    List<ImageRenditionHelper.Rendition> renditions =
+        imageRenditionHelper.render(encode(image, "png"));
+
+    assertEquals(3, renditions.size());
+    assertSize(renditions.get(0), 320, 160);
+    assertSize(renditions.get(1), 640, 320);
+    assertSize(renditions.get(2), 1280, 640);
+  }
+
+  /**
+   * Test that images narrower than a rendition are not scaled up, and that the wider widths share
+   * a single rendition at the image's own width.
+   */
+  @Test
+  void testSmallImageNotUpscaled() throws IOException {
+    List<ImageRenditionHelper.Rendition> renditions =
+        imageRenditionHelper.render(
+            encode(new BufferedImage(500, 250, BufferedImage.TYPE_INT_RGB), "jpg"));
+
+    assertEquals(2, renditions.size());
+    assertSize(renditions.get(0), 320, 160);
+    assertSize(renditions.get(1), 500, 250);
+    assertEquals(320, renditions.get(0).targetWidth());
+    assertEquals(640, renditions.get(1).targetWidth());
+  }
+
+  /** Test that an image exactly as wide as a rendition is not rendered again for wider ones. */
+  @Test
+  void testImageAsWideAsRendition() throws IOException {
+    List<ImageRenditionHelper.Rendition> renditions =
+        imageRenditionHelper.render(
+            encode(new BufferedImage(320, 200, BufferedImage.TYPE_INT_RGB), "png"));
+
+    assertEquals(1, renditions.size());
+    assertSize(renditions.get(0), 320, 200);
+    assertEquals(320, renditions.get(0).targetWidth());
+  }
+
+  /** Test that the EXIF orientation is applied: 6 means the camera was turned clockwise. */
+  @Test
+  void testExifOrientationApplied() throws IOException {
+    BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+    byte[] jpeg = encode(image, "jpg").readAllBytes();
+
+    // Big-endian TIFF header with a single IFD0 entry: orientation (0x0112), SHORT, 1, value 6
+    byte[] app1 = {
+      (byte) 0xFF, (byte) 0xE1, 0, 34, 'E', 'x', 'i', 'f', 0, 0, 'M', 'M', 0, 42, 0, 0, 0, 8,
+      0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0, 0, 0, 0, 0
+    };
+    int app0End = 4 + ((jpeg[4] & 0xFF) << 8 | (jpeg[5] & 0xFF));
+    ByteArrayOutputStream withExif = new ByteArrayOutputStream();
+    withExif.write(jpeg, 0, app0End);
+    withExif.write(app1);
+    withExif.write(jpeg, app0End, jpeg.length - app0End);
+
+    ImageRenditionHelper.Rendition rendition =
+        imageRenditionHelper.render(new ByteArrayInputStream(withExif.toByteArray())).get(0);
+    assertSize(rendition, 100, 200);
+  }
+
+  /** Test that only formats that can be decoded get renditions. */
+  @Test
+  void testCanRender() {
+    assertTrue(imageRenditionHelper.canRender("jpg"));
+    assertTrue(imageRenditionHelper.canRender("png"));
+    assertFalse(imageRenditionHelper.canRender("svg"));
+    assertFalse(imageRenditionHelper.canRender("heic"));
+  }
+
+  private static void assertSize(ImageRenditionHelper.Rendition rendition, int width, int height)
+      throws IOException {
+    assertEquals(width, rendition.width());
+    assertEquals(height, rendition.height());
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(rendition.content()));
+    assertEquals(width, decoded.getWidth());
+    assertEquals(height, decoded.getHeight());
+  }
+
+  private static ByteArrayInputStream encode(BufferedImage image, String format)
+      throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ImageIO.write(image, format, baos);
+    return new ByteArrayInputStream(baos.toByteArray());
+  }
+}
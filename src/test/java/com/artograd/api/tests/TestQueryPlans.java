@@ -0,0 +1,502 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.artograd.api.helpers.FacetedSearchHelper;
+import com.artograd.api.helpers.GeoSearchHelper;
+import com.artograd.api.helpers.KeysetPaginationHelper;
+import com.artograd.api.helpers.MapClusterHelper;
+import com.artograd.api.helpers.UserAttributeHelper;
+import com.artograd.api.model.ArtObject;
+import com.artograd.api.model.ArtObjectSearchCriteria;
+import com.artograd.api.model.CursorPage;
+import com.artograd.api.model.EmailWhitelistEntry;
+import com.artograd.api.model.ExpenseReport;
+import com.artograd.api.model.GeoSearchCriteria;
+import com.artograd.api.model.Proposal;
+import com.artograd.api.model.SocialMediaContact;
+import com.artograd.api.model.TeamMate;
+import com.artograd.api.model.Tender;
+import com.artograd.api.model.TenderSearchCriteria;
+import com.artograd.api.model.UserInfo;
+import com.artograd.api.model.WorkUpdate;
+import com.artograd.api.model.enums.TenderStatus;
+import com.artograd.api.repositories.ArtObjectRepository;
+import com.artograd.api.repositories.EmailWhitelistRepository;
+import com.artograd.api.repositories.ExpenseReportRepository;
+import com.artograd.api.repositories.ProposalRepository;
+import com.artograd.api.repositories.SocialMediaContactRepository;
+import com.artograd.api.repositories.TeamMateRepository;
+import com.artograd.api.repositories.TenderRepository;
+import com.artograd.api.repositories.WorkUpdateRepository;
+import com.artograd.api.services.IProposalService;
+import com.artograd.api.services.IUserService;
+import com.artograd.api.services.impl.ArtObjectService;
+import com.artograd.api.services.impl.TenderService;
+import com.artograd.api.services.system.IndexBootstrapService;
+import com.artograd.api.services.system.SequenceGeneratorService;
+import com.artograd.api.utils.LocationUtils;
+import com.artograd.api.utils.SearchTextUtils;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs every query shape the services and repositories issue against a seeded MongoDB container
+ * and checks its plan with {@code explain}. The commands are recorded at the driver level, so the
+ * check covers exactly what is sent to the server, including derived and {@code @Query}
+ * repository methods. A query fails the test if its winning plan scans the collection or if it
+ * examines too many documents per document it returns. Full-text, facet and map cluster queries
+ * are exempt from the ratio: they score, count or group every match.
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(Lifecycle.PER_CLASS)
+@Import({
+  TenderService.class,
+  ArtObjectService.class,
+  IndexBootstrapService.class,
+  KeysetPaginationHelper.class,
+  FacetedSearchHelper.class,
+  GeoSearchHelper.class,
+  MapClusterHelper.class,
+  UserAttributeHelper.class,
+  SequenceGeneratorService.class,
+  TestQueryPlans.RecorderConfig.class
+})
+class TestQueryPlans {
+
+  private static final int MAX_DOCS_EXAMINED_PER_RETURNED = 10;
+
+  private static final Set<String> EXPLAINED_COMMANDS = Set.of("find", "count", "aggregate");
+
+  private static final int OWNERS = 20;
+  private static final int LOCATIONS = 10;
+  private static final int TENDERS = 3_000;
+  private static final int ART_OBJECTS = 1_500;
+
+  @Container
+  static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+  /** Commands sent to the server while the flag is set, keyed by their text to drop repeats. */
+  private static final Map<String, BsonDocument> RECORDED = new ConcurrentHashMap<>();
+
+  private static volatile boolean recording;
+
+  @DynamicPropertySource
+  static void mongoProperties(DynamicPropertyRegistry registry) {
+    // The per-class instance gets its context before the extension starts the container
+    MONGO.start();
+    registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("query_plans"));
+  }
+
+  @TestConfiguration
+  static class RecorderConfig {
+    @Bean
+    MongoClientSettingsBuilderCustomizer commandRecorder() {
+      CommandListener listener =
+          new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+              if (recording && EXPLAINED_COMMANDS.contains(event.getCommandName())) {
+                BsonDocument command = event.getCommand().clone();
+                RECORDED.putIfAbsent(command.toJson(), command);
+              }
+            }
+          };
+      return builder -> builder.addCommandListener(listener);
+    }
+  }
+
+  @MockBean private IUserService userService;
+
+  @MockBean private IProposalService proposalService;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Autowired private IndexBootstrapService indexBootstrapService;
+
+  @Autowired private TenderService tenderService;
+
+  @Autowired private ArtObjectService artObjectService;
+
+  @Autowired private TenderRepository tenderRepository;
+
+  @Autowired private ProposalRepository proposalRepository;
+
+  @Autowired private ArtObjectRepository artObjectRepository;
+
+  @Autowired private ExpenseReportRepository expenseReportRepository;
+
+  @Autowired private WorkUpdateRepository workUpdateRepository;
+
+  @Autowired private SocialMediaContactRepository socialMediaContactRepository;
+
+  @Autowired private TeamMateRepository teamMateRepository;
+
+  @Autowired private EmailWhitelistRepository emailWhitelistRepository;
+
+  @BeforeAll
+  void seed() {
+    Random random = new Random(7);
+    List<String> titles = List.of("Mural", "Sculpture", "Fountain", "Mosaic", "Monument");
+    List<String> statuses =
+        List.of("DRAFT", "PUBLISHED", "IDEATION", "VOTING", "CLOSED", "CANCELLED", "DELETED");
+
+    List<Tender> tenders = new ArrayList<>();
+    for (int i = 0; i < TENDERS; i++) {
+      Tender tender = new Tender();
+      tender.setTitle(titles.get(random.nextInt(titles.size())) + " " + i);
+      tender.setTitleTokens(SearchTextUtils.prefixes(tender.getTitle()));
+      tender.setDescription("Tender description " + i);
+      tender.setOwnerId("owner" + random.nextInt(OWNERS));
+      tender.setStatus(statuses.get(random.nextInt(statuses.size())));
+      tender.setLocationLeafId("location" + random.nextInt(LOCATIONS));
+      tender.setLocationPath(LocationUtils.path(null, tender.getLocationLeafId()));
+      tender.setGeoPoint(randomPoint(random));
+      tender.setCreatedAt(new Date(1_700_000_000_000L + i * 60_000L));
+      tenders.add(tender);
+    }
+    mongoTemplate.insertAll(tenders);
+
+    List<Proposal> proposals = new ArrayList<>();
+    for (int i = 0; i < TENDERS; i++) {
+      Proposal proposal = new Proposal();
+      proposal.setId("proposal" + i);
+      proposal.setTenderId(tenders.get(random.nextInt(TENDERS)).getId());
+      proposal.setOwnerId("artist" + random.nextInt(OWNERS));
+      proposal.setLikeCount(random.nextInt(50));
+      proposal.setCreatedAt(new Date(1_700_000_000_000L + i * 60_000L));
+      proposals.add(proposal);
+    }
+    mongoTemplate.insertAll(proposals);
+
+    List<ArtObject> artObjects = new ArrayList<>();
+    List<Object> reports = new ArrayList<>();
+    for (int i = 0; i < ART_OBJECTS; i++) {
+      ArtObject artObject = new ArtObject();
+      artObject.setTitle(titles.get(random.nextInt(titles.size())) + " " + i);
+      artObject.setTitleTokens(SearchTextUtils.prefixes(artObject.getTitle()));
+      artObject.setStatus(List.of("NEW", "FUNDRAISING", "IN_PROGRESS", "DONE").get(i % 4));
+      artObject.setOwner(userInfo("owner" + random.nextInt(OWNERS)));
+      artObject.setSupplier(userInfo("artist" + random.nextInt(OWNERS)));
+      artObject.setLocationLeafId("location" + random.nextInt(LOCATIONS));
+      artObject.setLocationPath(LocationUtils.path(null, artObject.getLocationLeafId()));
+      artObject.setGeoPoint(randomPoint(random));
+      artObject.setCreatedAt(new Date(1_700_000_000_000L + i * 60_000L));
+      artObjects.add(artObject);
+    }
+    mongoTemplate.insertAll(artObjects);
+    for (int i = 0; i < ART_OBJECTS * 2; i++) {
+      String artObjectId = artObjects.get(random.nextInt(ART_OBJECTS)).getId();
+      ExpenseReport report = new ExpenseReport();
+      report.setArtObjectId(artObjectId);
+      report.setDate(new Date(1_700_000_000_000L + i * 60_000L));
+      WorkUpdate update = new WorkUpdate();
+      update.setArtObjectId(artObjectId);
+      update.setDate(report.getDate());
+      reports.add(report);
+      reports.add(update);
+    }
+    mongoTemplate.insertAll(reports);
+
+    List<Object> references = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      SocialMediaContact contact = new SocialMediaContact();
+      contact.setUserId("owner" + random.nextInt(OWNERS));
+      TeamMate teamMate = new TeamMate();
+      teamMate.setName("Team mate " + i);
+      teamMate.setActive(i % 10 == 0);
+      EmailWhitelistEntry entry = new EmailWhitelistEntry();
+      entry.setEmail(i % 2 == 0 ? "official" + i + "@example.me" : null);
+      entry.setDomain(i % 2 == 1 ? "city" + i + ".gov.me" : null);
+      references.add(contact);
+      references.add(teamMate);
+      references.add(entry);
+    }
+    mongoTemplate.insertAll(references);
+
+    indexBootstrapService.run(null);
+  }
+
+  @Test
+  void everyQueryUsesAnIndex() {
+    RECORDED.clear();
+    recording = true;
+    try {
+      runTenderQueries();
+      runArtObjectQueries();
+      runRepositoryQueries();
+    } finally {
+      recording = false;
+    }
+
+    assertFalse(RECORDED.isEmpty(), "No queries were recorded");
+    List<String> failures = new ArrayList<>();
+    RECORDED.values().forEach(command -> checkPlan(command, failures));
+    assertTrue(failures.isEmpty(), String.join("\n", failures));
+  }
+
+  @Test
+  void scrollingVisitsEveryTenderOnce() {
+    for (String sortOrder : List.of("asc", "desc")) {
+      TenderSearchCriteria all = new TenderSearchCriteria();
+      all.setOwnerId("owner3");
+      all.setSize(TENDERS);
+      Set<String> expected = new HashSet<>();
+      tenderService.searchTenders(all).forEach(tender -> expected.add(tender.getId()));
+
+      TenderSearchCriteria scroll = new TenderSearchCriteria();
+      scroll.setOwnerId("owner3");
+      scroll.setSortOrder(sortOrder);
+      scroll.setSize(7);
+      List<String> visited = new ArrayList<>();
+      do {
+        CursorPage<Tender> page = tenderService.scrollTenders(scroll);
+        page.getItems().forEach(tender -> visited.add(tender.getId()));
+        scroll.setAfter(page.getNextCursor());
+      } while (scroll.getAfter() != null);
+
+      assertEquals(visited.size(), new HashSet<>(visited).size(), sortOrder + ": repeated items");
+      assertEquals(expected, new HashSet<>(visited), sortOrder + ": items missed");
+    }
+  }
+
+  @Test
+  void scrollingRejectsFieldsThatAreNotWhitelisted() {
+    TenderSearchCriteria scroll = new TenderSearchCriteria();
+    scroll.setSortBy("votingEndDate");
+    assertThrows(IllegalArgumentException.class, () -> tenderService.scrollTenders(scroll));
+  }
+
+  private void runTenderQueries() {
+    TenderSearchCriteria publicSearch = new TenderSearchCriteria();
+    tenderService.searchTenders(publicSearch);
+
+    TenderSearchCriteria byLocation = new TenderSearchCriteria();
+    byLocation.setLocationLeafIds(List.of("location1", "location2"));
+    tenderService.searchTenders(byLocation);
+
+    TenderSearchCriteria byStatus = new TenderSearchCriteria();
+    byStatus.setStatuses(List.of(TenderStatus.VOTING.name()));
+    tenderService.searchTenders(byStatus);
+
+    TenderSearchCriteria byTitle = new TenderSearchCriteria();
+    byTitle.setTitle("sculp");
+    byTitle.setFields("card");
+    tenderService.searchTenders(byTitle);
+
+    TenderSearchCriteria byText = new TenderSearchCriteria();
+    byText.setText("fountain");
+    byText.setSortBy("relevance");
+    tenderService.searchTenders(byText);
+
+    TenderSearchCriteria byOwner = new TenderSearchCriteria();
+    byOwner.setOwnerId("owner3");
+    byOwner.setIncludeProposals(true);
+    tenderService.searchTenders(byOwner);
+
+    TenderSearchCriteria scroll = new TenderSearchCriteria();
+    CursorPage<Tender> firstPage = tenderService.scrollTenders(scroll);
+    scroll.setAfter(firstPage.getNextCursor());
+    tenderService.scrollTenders(scroll);
+
+    TenderSearchCriteria oldestFirst = new TenderSearchCriteria();
+    oldestFirst.setSortOrder("asc");
+    oldestFirst.setLocationLeafIds(List.of("location1"));
+    oldestFirst.setAfter(tenderService.scrollTenders(oldestFirst).getNextCursor());
+    tenderService.scrollTenders(oldestFirst);
+
+    TenderSearchCriteria facets = new TenderSearchCriteria();
+    facets.setStatuses(List.of(TenderStatus.VOTING.name()));
+    facets.setLocationLeafIds(List.of("location1"));
+    tenderService.facetTenders(facets);
+
+    tenderService.findTendersNear(near());
+    tenderService.findTendersNear(boundingBox());
+    tenderService.clusterTenders(boundingBox());
+
+    tenderService.getCountByOwnerIdAndStatusIn("owner3", null);
+    tenderService.getCountByOwnerIdAndStatusIn("owner3", List.of("PUBLISHED", "VOTING"));
+  }
+
+  private void runArtObjectQueries() {
+    artObjectService.searchArtObjects(new ArtObjectSearchCriteria());
+
+    ArtObjectSearchCriteria byUser = new ArtObjectSearchCriteria();
+    byUser.setUserId("owner5");
+    artObjectService.searchArtObjects(byUser);
+
+    ArtObjectSearchCriteria byStatus = new ArtObjectSearchCriteria();
+    byStatus.setStatuses(List.of("NEW"));
+    artObjectService.searchArtObjects(byStatus);
+
+    ArtObjectSearchCriteria byLocation = new ArtObjectSearchCriteria();
+    byLocation.setLocationLeafIds(List.of("location1", "location2"));
+    artObjectService.searchArtObjects(byLocation);
+
+    ArtObjectSearchCriteria byTitle = new ArtObjectSearchCriteria();
+    byTitle.setTitle("mosa");
+    artObjectService.searchArtObjects(byTitle);
+
+    ArtObjectSearchCriteria scroll = new ArtObjectSearchCriteria();
+    CursorPage<ArtObject> firstPage = artObjectService.scrollArtObjects(scroll);
+    scroll.setAfter(firstPage.getNextCursor());
+    artObjectService.scrollArtObjects(scroll);
+
+    ArtObjectSearchCriteria facets = new ArtObjectSearchCriteria();
+    facets.setUserId("owner5");
+    artObjectService.facetArtObjects(facets);
+
+    GeoSearchCriteria nearByStatus = near();
+    nearByStatus.setStatuses(List.of("DONE"));
+    artObjectService.findArtObjectsNear(nearByStatus);
+    artObjectService.findArtObjectsNear(boundingBox());
+    artObjectService.clusterArtObjects(boundingBox());
+
+    artObjectService.countArtObjects(List.of("NEW", "DONE"), "owner5");
+    artObjectService.countArtObjects(List.of("NEW"), null);
+  }
+
+  private void runRepositoryQueries() {
+    String tenderId = tenderRepository.findByOwnerId("owner4").get(0).getId();
+    String artObjectId = artObjectRepository.findByOwnerIdOrSupplierId("owner4").get(0).getId();
+
+    proposalRepository.findByTenderIdOrderByCreatedAtAsc(tenderId);
+    proposalRepository.findByIdAndTenderId("proposal1", tenderId);
+    expenseReportRepository.findByArtObjectIdOrderByDateDesc(artObjectId);
+    workUpdateRepository.findByArtObjectIdOrderByDateDesc(artObjectId);
+    socialMediaContactRepository.findByUserId("owner4");
+    teamMateRepository.findByActiveTrue();
+    emailWhitelistRepository.findByEmailIgnoreCase("Official10@Example.me");
+    emailWhitelistRepository.findByDomainIgnoreCase("CITY11.gov.me");
+  }
+
+  private void checkPlan(BsonDocument recorded, List<String> failures) {
+    Document command = new Document();
+    recorded.forEach(
+        (key, value) -> {
+          if (!key.startsWith("$") && !key.equals("lsid")) {
+            command.put(key, value);
+          }
+        });
+    Document explain =
+        mongoTemplate
+            .getDb()
+            .runCommand(new Document("explain", command).append("verbosity", "executionStats"));
+
+    if (containsStage(explain, "COLLSCAN")) {
+      failures.add("COLLSCAN: " + command.toJson());
+      return;
+    }
+    Document stats = findFirst(explain, "executionStats");
+    // Relevance-sorted text searches, facet counts and map clusters read every match by design
+    if (stats != null && !command.toJson().matches(".*\"\\$(text|facet|firstN)\".*")) {
+      long examined = ((Number) stats.get("totalDocsExamined")).longValue();
+      long returned = ((Number) stats.get("nReturned")).longValue();
+      if (examined > Math.max(returned, 1) * MAX_DOCS_EXAMINED_PER_RETURNED) {
+        failures.add(
+            String.format(
+                "%d docs examined for %d returned: %s", examined, returned, command.toJson()));
+      }
+    }
+  }
+
+  /** Looks for the stage anywhere in the winning plans of the explain output. */
+  private static boolean containsStage(Object node, String stage) {
+    if (node instanceof Document document) {
+      if (stage.equals(document.get("stage"))) {
+        return true;
+      }
+      return document.entrySet().stream()
+          .filter(entry -> !entry.getKey().equals("rejectedPlans"))
+          .anyMatch(entry -> containsStage(entry.getValue(), stage));
+    }
+    if (node instanceof List<?> list) {
+      return list.stream().anyMatch(item -> containsStage(item, stage));
+    }
+    return false;
+  }
+
+  private static Document findFirst(Object node, String key) {
+    if (node instanceof Document document) {
+      if (document.get(key) instanceof Document found) {
+        return found;
+      }
+      for (Object value : document.values()) {
+        Document found = findFirst(value, key);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    if (node instanceof List<?> list) {
+      for (Object item : list) {
+        Document found = findFirst(item, key);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** A point in a 0.2 degree square around Budva. */
+  private static GeoJsonPoint randomPoint(Random random) {
+    return new GeoJsonPoint(18.75 + random.nextDouble() * 0.2, 42.2 + random.nextDouble() * 0.2);
+  }
+
+  private static GeoSearchCriteria near() {
+    GeoSearchCriteria criteria = new GeoSearchCriteria();
+    criteria.setLat(42.3);
+    criteria.setLng(18.85);
+    criteria.setRadius(1000);
+    return criteria;
+  }
+
+  private static GeoSearchCriteria boundingBox() {
+    GeoSearchCriteria criteria = new GeoSearchCriteria();
+    criteria.setMinLat(42.29);
+    criteria.setMinLng(18.84);
+    criteria.setMaxLat(42.31);
+    criteria.setMaxLng(18.86);
+    criteria.setFields("card");
+    return criteria;
+  }
+
+  private static UserInfo userInfo(String id) {
+    UserInfo userInfo = new UserInfo();
+    userInfo.setId(id);
+    return userInfo;
+  }
+}
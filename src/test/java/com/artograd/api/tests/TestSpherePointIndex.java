@@ -0,0 +1,77 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.artograd.api.utils.SpherePointIndex;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class TestSpherePointIndex {
+
+  private static final int POINTS = 2_000;
+  private static final int QUERIES = 2_000;
+
+  /** Test that an empty index finds nothing. */
+  @Test
+  void testEmptyIndex() {
+    assertEquals(-1, new SpherePointIndex(new double[0], new double[0]).nearest(42, 19));
+  }
+
+  /** Test that the nearest point matches a brute-force search over the whole globe. */
+  @Test
+  void testNearestMatchesBruteForce() {
+    Random random = new Random(42);
+    assertNearest(random, TestSpherePointIndex::uniform);
+  }
+
+  /** Test points packed around the antimeridian and a pole, where lat/lng distances mislead. */
+  @Test
+  void testNearestAcrossAntimeridianAndPole() {
+    Random random = new Random(7);
+    assertNearest(random, TestSpherePointIndex::clustered);
+  }
+
+  /** Builds an index of random points and checks random queries from the same distribution. */
+  private static void assertNearest(Random random, Function<Random, double[]> point) {
+    double[] lats = new double[POINTS];
+    double[] lngs = new double[POINTS];
+    for (int i = 0; i < POINTS; i++) {
+      double[] latLng = point.apply(random);
+      lats[i] = latLng[0];
+      lngs[i] = latLng[1];
+    }
+    SpherePointIndex index = new SpherePointIndex(lats, lngs);
+
+    for (int q = 0; q < QUERIES; q++) {
+      double[] query = point.apply(random);
+      double expected = Double.MAX_VALUE;
+      for (int i = 0; i < POINTS; i++) {
+        expected =
+            Math.min(
+                expected, SpherePointIndex.distanceMetres(query[0], query[1], lats[i], lngs[i]));
+      }
+      int found = index.nearest(query[0], query[1]);
+      double actual =
+          SpherePointIndex.distanceMetres(query[0], query[1], lats[found], lngs[found]);
+      // Distances rather than indexes, as equidistant points may be returned in any order
+      assertEquals(expected, actual, 1e-3, "nearest to " + query[0] + "," + query[1]);
+    }
+  }
+
+  /** Returns a point uniformly distributed over the sphere. */
+  private static double[] uniform(Random random) {
+    return new double[] {
+      Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)), random.nextDouble() * 360 - 180
+    };
+  }
+
+  /** Returns a point near the north pole or on either side of the antimeridian. */
+  private static double[] clustered(Random random) {
+    if (random.nextBoolean()) {
+      return new double[] {85 + random.nextDouble() * 5, random.nextDouble() * 360 - 180};
+    }
+    double lng = 180 + random.nextGaussian();
+    return new double[] {random.nextDouble() * 10 - 5, lng > 180 ? lng - 360 : lng};
+  }
+}
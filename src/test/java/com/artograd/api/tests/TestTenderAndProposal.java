@@ -133,6 +133,18 @@ class TestTenderAndProposal {
 
   @Test
   @Order(7)
+  void citizenLikesProposal_Success() throws Exception {
+    mockMvc
+        .perform(
+            post("/tenders/" + tenderId + "/proposals/" + proposalId + "/like")
+                .header("Authorization", "Bearer " + testService.getTestUsers().getCitizenToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.likeCount").value(1))
+        .andExpect(jsonPath("$.likedByUsers", hasSize(1)));
+  }
+
+  @Test
+  @Order(8)
   void creatorUpdatesProposal_Success() throws Exception {
     String proposalJson = testService.getDefaultProposalJson();
     ObjectMapper mapper = new ObjectMapper();
@@ -140,6 +152,7 @@ class TestTenderAndProposal {
 
     ((ObjectNode) root).put("id", proposalId);
     ((ObjectNode) root).put("title", "New Title");
+    ((ObjectNode) root).remove("cover");
     String updatedJson = mapper.writeValueAsString(root);
 
     mockMvc
@@ -149,11 +162,50 @@ class TestTenderAndProposal {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(updatedJson))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.title").value("New Title"));
+        .andExpect(jsonPath("$.title").value("New Title"))
+        .andExpect(jsonPath("$.cover").isEmpty())
+        .andExpect(jsonPath("$.likeCount").value(1))
+        .andExpect(jsonPath("$.likedByUsers", hasSize(1)));
   }
 
   @Test
-  @Order(8)
+  @Order(9)
+  void creatorUpdatesProposalAgain_KeepsLikes() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode root = (ObjectNode) mapper.readTree(testService.getDefaultProposalJson());
+    root.put("id", proposalId);
+    root.put("title", "Newer Title");
+    root.put("likeCount", 0);
+    root.putArray("likedByUsers");
+
+    mockMvc
+        .perform(
+            put("/tenders/" + tenderId + "/proposals/" + proposalId)
+                .header("Authorization", "Bearer " + testService.getTestUsers().getCreatorToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(root)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("Newer Title"))
+        .andExpect(jsonPath("$.likeCount").value(1))
+        .andExpect(jsonPath("$.likedByUsers", hasSize(1)));
+  }
+
+  @Test
+  @Order(10)
+  void getProposalsWithInvalidPaging_BadRequest() throws Exception {
+    mockMvc
+        .perform(get("/tenders/" + tenderId + "/proposals").param("sortOrder", "sideways"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/tenders/" + tenderId + "/proposals").param("page", "-1"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/tenders/" + tenderId + "/proposals").param("size", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @Order(11)
   void officialDeletesProposal_Forbidden() throws Exception {
     mockMvc
         .perform(
@@ -163,7 +215,7 @@ class TestTenderAndProposal {
   }
 
   @Test
-  @Order(9)
+  @Order(12)
   void creatorDeletesProposal_Success() throws Exception {
     mockMvc
         .perform(
@@ -173,7 +225,7 @@ class TestTenderAndProposal {
   }
 
   @Test
-  @Order(10)
+  @Order(13)
   void creatorDeletesProposalAgain_Forbidden() throws Exception {
     mockMvc
         .perform(
@@ -183,7 +235,7 @@ class TestTenderAndProposal {
   }
 
   @Test
-  @Order(11)
+  @Order(14)
   void creatorDeletesTender_Forbidden() throws Exception {
     mockMvc
         .perform(
@@ -193,7 +245,7 @@ class TestTenderAndProposal {
   }
 
   @Test
-  @Order(12)
+  @Order(15)
   void officerDeletesTender_Success() throws Exception {
     mockMvc
         .perform(
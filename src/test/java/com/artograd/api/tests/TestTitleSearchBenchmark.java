@@ -0,0 +1,172 @@
+package com.artograd.api.tests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.artograd.api.utils.SearchTextUtils;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Compares the former case-insensitive regex title search with the title prefix and full-text
+ * searches on a seeded collection of 100k tenders. Runs only with {@code -Dbenchmark=true}; the
+ * seeded collection is separate from the application's and is dropped afterwards.
+ */
+@SpringBootTest
+@TestInstance(Lifecycle.PER_CLASS)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TestTitleSearchBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestTitleSearchBenchmark.class);
+
+  private static final String COLLECTION = "benchmark_title_search";
+  private static final int DOCUMENTS = 100_000;
+  private static final int BATCH_SIZE = 5_000;
+  private static final int WARMUP_RUNS = 5;
+  private static final int MEASURED_RUNS = 25;
+  private static final int PAGE_SIZE = 10;
+
+  private static final List<String> WORDS =
+      Arrays.asList(
+          "mural", "sculpture", "fountain", "monument", "park", "square", "bridge", "mosaic",
+          "skulptura", "spomenik", "fontana", "trg", "most", "mozaik", "obala", "tvrdjava",
+          "скульптура", "памятник", "фонтан", "площадь", "набережная", "мозаика", "мост",
+          "budva", "kotor", "podgorica", "tivat", "cetinje", "herceg", "bar", "ulcinj");
+
+  private static final List<String> QUERIES = List.of("skulpt", "fontana", "памят", "kotor most");
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  private MongoCollection<Document> collection;
+
+  @BeforeAll
+  void seed() {
+    collection = mongoTemplate.getCollection(COLLECTION);
+    collection.drop();
+
+    Random random = new Random(42);
+    long now = System.currentTimeMillis();
+    List<Document> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < DOCUMENTS; i++) {
+      String title = words(random, 2 + random.nextInt(4));
+      batch.add(
+          new Document("title", title)
+              .append("description", words(random, 30))
+              .append("titleTokens", SearchTextUtils.prefixes(title))
+              .append("status", "PUBLISHED")
+              .append("createdAt", new Date(now - random.nextInt(365 * 24 * 3600) * 1000L)));
+      if (batch.size() == BATCH_SIZE) {
+        collection.insertMany(batch);
+        batch.clear();
+      }
+    }
+
+    collection.createIndex(
+        Indexes.compoundIndex(
+            Indexes.ascending("titleTokens"), Indexes.descending("createdAt", "_id")));
+    collection.createIndex(
+        Indexes.compoundIndex(Indexes.text("title"), Indexes.text("description")),
+        new IndexOptions()
+            .weights(new Document("title", 10).append("description", 2))
+            .defaultLanguage("none"));
+  }
+
+  @AfterAll
+  void drop() {
+    collection.drop();
+  }
+
+  @Test
+  void indexedSearchExaminesFewerDocumentsThanRegex() {
+    Bson newestFirst = Sorts.descending("createdAt", "_id");
+
+    for (String query : QUERIES) {
+      Bson regex =
+          Filters.regex("title", Pattern.compile(Pattern.quote(query), Pattern.CASE_INSENSITIVE));
+      Bson prefix = Filters.all("titleTokens", SearchTextUtils.queryTokens(query));
+      Bson text = Filters.text(query);
+
+      Result regexResult = measure(() -> collection.find(regex).sort(newestFirst));
+      Result prefixResult = measure(() -> collection.find(prefix).sort(newestFirst));
+      Result textResult =
+          measure(
+              () ->
+                  collection
+                      .find(text)
+                      .projection(Projections.metaTextScore("score"))
+                      .sort(Sorts.metaTextScore("score")));
+
+      logger.info(
+          "'{}': regex {} | prefix {} | text {}", query, regexResult, prefixResult, textResult);
+
+      assertTrue(prefixResult.docsExamined() < regexResult.docsExamined(), query);
+      assertTrue(textResult.docsExamined() <= regexResult.docsExamined(), query);
+    }
+  }
+
+  private Result measure(Supplier<FindIterable<Document>> find) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      find.get().limit(PAGE_SIZE).into(new ArrayList<>());
+    }
+    long[] nanos = new long[MEASURED_RUNS];
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      long start = System.nanoTime();
+      find.get().limit(PAGE_SIZE).into(new ArrayList<>());
+      nanos[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(nanos);
+
+    Document stats =
+        find.get()
+            .limit(PAGE_SIZE)
+            .explain(ExplainVerbosity.EXECUTION_STATS)
+            .get("executionStats", Document.class);
+    return new Result(
+        nanos[MEASURED_RUNS / 2] / 1_000_000.0,
+        nanos[MEASURED_RUNS * 95 / 100] / 1_000_000.0,
+        ((Number) stats.get("totalDocsExamined")).longValue());
+  }
+
+  private static String words(Random random, int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(i == 0 ? "" : " ").append(WORDS.get(random.nextInt(WORDS.size())));
+    }
+    return builder.toString();
+  }
+
+  private record Result(double medianMillis, double p95Millis, long docsExamined) {
+    @Override
+    public String toString() {
+      return String.format(
+          "median %.2f ms, p95 %.2f ms, %d docs examined", medianMillis, p95Millis, docsExamined);
+    }
+  }
+}